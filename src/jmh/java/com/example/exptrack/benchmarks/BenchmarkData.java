@@ -0,0 +1,112 @@
+package com.example.exptrack.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.example.exptrack.dtos.TransactionRowDTO;
+
+// Synthetic, seeded datasets shaped like the real report inputs. Anything that
+// depends on the database is measured by the load test against Postgres instead
+final class BenchmarkData {
+
+  static final String[] CATEGORIES = { "Food", "Rent", "Transport", "Utilities", "Health", "Leisure",
+      "Shopping", "Education", "Travel", "Insurance", "Gifts", "Subscriptions" };
+  static final String[] SOURCES = { "Salary", "Freelance", "Dividends", "Interest", "Rental", "Refund" };
+  static final List<String> CSV_HEADERS = List.of("Date", "Type", "Category/Source", "Amount");
+
+  // All rows fall within 2024
+  static final long START = 1704067200000L;
+  static final long SPAN = 366L * 24 * 60 * 60 * 1000;
+
+  private BenchmarkData() {
+  }
+
+  static List<TransactionRowDTO> expenses(int count, long seed) {
+    Random random = new Random(seed);
+    List<TransactionRowDTO> expenses = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Date date = new Date(START + (long) (random.nextDouble() * SPAN));
+      expenses.add(new TransactionRowDTO((long) i + 1, amount(random),
+          CATEGORIES[random.nextInt(CATEGORIES.length)], date, date));
+    }
+    return expenses;
+  }
+
+  static List<TransactionRowDTO> revenues(int count, long seed) {
+    Random random = new Random(seed);
+    List<TransactionRowDTO> revenues = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Date date = new Date(START + (long) (random.nextDouble() * SPAN));
+      revenues.add(new TransactionRowDTO((long) i + 1, amount(random) * 4,
+          SOURCES[random.nextInt(SOURCES.length)], date, date));
+    }
+    return revenues;
+  }
+
+  // Same shape prepareReportData builds for the "all" report: a summary and one transactions table
+  static Map<String, Object> reportData(int rows, long seed) {
+    Random random = new Random(seed);
+    List<List<Object>> tableRows = new ArrayList<>(rows);
+    double expenses = 0;
+    double revenues = 0;
+    for (int i = 0; i < rows; i++) {
+      Date date = new Date(START + (long) (random.nextDouble() * SPAN));
+      double amount = amount(random);
+      boolean expense = random.nextInt(4) != 0;
+      if (expense) {
+        expenses += amount;
+      } else {
+        revenues += amount;
+      }
+      tableRows.add(List.of(
+          date.toString(),
+          expense ? "Expense" : "Revenue",
+          expense ? CATEGORIES[random.nextInt(CATEGORIES.length)] : SOURCES[random.nextInt(SOURCES.length)],
+          amount));
+    }
+
+    Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("Total Revenues", revenues);
+    summary.put("Total Expenses", expenses);
+    summary.put("Net Income", revenues - expenses);
+    summary.put("Transaction Count", rows);
+
+    Map<String, Object> table = new HashMap<>();
+    table.put("title", "All Transactions");
+    table.put("headers", List.of("Date", "Type", "Category/Source", "Amount"));
+    table.put("rows", tableRows);
+
+    Map<String, Object> data = new HashMap<>();
+    data.put("summary", summary);
+    data.put("tables", List.of(table));
+    return data;
+  }
+
+  // Same shape prepareCsvData builds for the "all" report
+  static List<Map<String, Object>> csvRows(int rows, long seed) {
+    Random random = new Random(seed);
+    List<Map<String, Object>> csvRows = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      Date date = new Date(START + (long) (random.nextDouble() * SPAN));
+      boolean expense = random.nextInt(4) != 0;
+      Map<String, Object> row = new HashMap<>();
+      row.put("Date", date.toString());
+      row.put("Type", expense ? "Expense" : "Revenue");
+      row.put("Category/Source", expense
+          ? CATEGORIES[random.nextInt(CATEGORIES.length)]
+          : SOURCES[random.nextInt(SOURCES.length)]);
+      row.put("Amount", amount(random));
+      csvRows.add(row);
+    }
+    return csvRows;
+  }
+
+  private static double amount(Random random) {
+    return Math.round(Math.exp(3 + random.nextGaussian()) * 100) / 100.0;
+  }
+}
@@ -0,0 +1,99 @@
+package com.example.exptrack.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.exptrack.dtos.TransactionRowDTO;
+import com.example.exptrack.services.ReportGeneratorService;
+import com.example.exptrack.utils.CsvWriter;
+
+// CSV encoding throughput in rows per second. typedRows is the /transactions/export
+// CSV path (id, timestamp, strings, amount per row); reportRows and legacyReportRows
+// compare generateCsv on report maps with the StringWriter/String.join version it
+// replaced. Output goes to a discarding stream, as a streamed response would.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class CsvWriterBenchmark {
+
+  private static final int ROWS = 100_000;
+
+  private ReportGeneratorService reportGeneratorService;
+  private List<TransactionRowDTO> transactions;
+  private List<Map<String, Object>> csvRows;
+
+  @Setup
+  public void setUp() {
+    reportGeneratorService = new ReportGeneratorService();
+    transactions = BenchmarkData.expenses(ROWS, 42);
+    csvRows = BenchmarkData.csvRows(ROWS, 42);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void typedRows() throws IOException {
+    CsvWriter csv = new CsvWriter(OutputStream.nullOutputStream());
+    for (TransactionRowDTO row : transactions) {
+      csv.field(row.id());
+      csv.timestamp(row.creationDate());
+      csv.field("expense");
+      csv.field(row.name());
+      csv.amount(row.amount());
+      csv.timestamp(row.lastModified());
+      csv.endRow();
+    }
+    csv.flush();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void reportRows() throws IOException {
+    reportGeneratorService.writeCsv(csvRows, BenchmarkData.CSV_HEADERS, OutputStream.nullOutputStream());
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public byte[] legacyReportRows() {
+    StringWriter writer = new StringWriter();
+    writer.write(String.join(",", BenchmarkData.CSV_HEADERS));
+    writer.write("\n");
+    for (Map<String, Object> row : csvRows) {
+      List<String> values = new ArrayList<>();
+      for (String header : BenchmarkData.CSV_HEADERS) {
+        Object value = row.get(header);
+        values.add(value != null ? escapeCsvValue(value.toString()) : "");
+      }
+      writer.write(String.join(",", values));
+      writer.write("\n");
+    }
+    return writer.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String escapeCsvValue(String value) {
+    if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+      return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+    return value;
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.exptrack.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.exptrack.services.ForecastService;
+import com.example.exptrack.utils.HoltWinters;
+
+// Per-request forecasting cost over 10 years of monthly data (120 closed periods)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ForecastBenchmark {
+
+  private double[] series;
+  private HoltWinters.Parameters parameters;
+  private ForecastService forecastService;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    series = new double[120];
+    for (int i = 0; i < series.length; i++) {
+      double season = 150 * Math.sin(2 * Math.PI * i / 12.0);
+      series[i] = 1000 + 5 * i + season + random.nextGaussian() * 50;
+    }
+    parameters = HoltWinters.fit(series, 12);
+
+    forecastService = new ForecastService(1000);
+    forecastService.forecast(1L, "expense", "MONTHLY", "2015-01", "2024-12", series, 12);
+  }
+
+  // Steady state: parameters cached, one smoothing pass
+  @Benchmark
+  public double[] forecastCached() {
+    return forecastService.forecast(1L, "expense", "MONTHLY", "2015-01", "2024-12", series, 12);
+  }
+
+  @Benchmark
+  public double[] smoothingPass() {
+    return HoltWinters.oneStepForecasts(series, parameters);
+  }
+
+  // A new period closed: warm-started local search
+  @Benchmark
+  public HoltWinters.Parameters refit() {
+    return HoltWinters.refit(series, parameters, 12);
+  }
+
+  // Cold cache: full grid search
+  @Benchmark
+  public HoltWinters.Parameters fullFit() {
+    return HoltWinters.fit(series, 12);
+  }
+}
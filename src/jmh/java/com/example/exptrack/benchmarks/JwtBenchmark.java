@@ -0,0 +1,69 @@
+package com.example.exptrack.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.exptrack.dtos.UserDTO;
+import com.example.exptrack.services.JwtService;
+import com.example.exptrack.utils.ServiceMetrics;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Token work done on every authenticated request (verify) and on login/refresh (generate)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+  private JwtService jwtService;
+  private UserDTO user;
+  private String accessToken;
+  private String refreshToken;
+
+  @Setup
+  public void setUp() {
+    jwtService = new JwtService("benchmark-secret-benchmark-secret-benchmark-secret-0123456789",
+        900_000L, 604_800_000L, new ServiceMetrics(new SimpleMeterRegistry()));
+    user = new UserDTO(1L, "benchmark");
+    accessToken = jwtService.generateAccessToken(user);
+    refreshToken = jwtService.generateRefreshToken(user);
+  }
+
+  @Benchmark
+  public String generateAccessToken() {
+    return jwtService.generateAccessToken(user);
+  }
+
+  @Benchmark
+  public Claims verify() {
+    return jwtService.extractAllClaims(accessToken);
+  }
+
+  // What JwtAuthFilter does for a request carrying a valid access token
+  @Benchmark
+  public UserDTO authenticateAccessToken() {
+    if (jwtService.isAccessToken(accessToken) && !jwtService.isTokenExpired(accessToken)) {
+      return jwtService.extractUserDTO(accessToken);
+    }
+    return null;
+  }
+
+  @Benchmark
+  public JwtService.TokenPair refreshTokenPair() {
+    return jwtService.refreshTokenPair(refreshToken);
+  }
+}
@@ -0,0 +1,75 @@
+package com.example.exptrack.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.exptrack.services.ReportGeneratorService;
+
+// Rendering cost per format for an "all transactions" report, excluding data preparation.
+// The 1M row runs need a large heap and take a while: narrow them with -Djmh.args="-p rows=1000"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReportRenderBenchmark {
+
+  @Param({ "1000", "100000", "1000000" })
+  private int rows;
+
+  private ReportGeneratorService reportGeneratorService;
+  private Map<String, Object> reportData;
+  private List<Map<String, Object>> csvRows;
+
+  @Setup
+  public void setUp() {
+    reportGeneratorService = new ReportGeneratorService();
+    reportData = BenchmarkData.reportData(rows, 42);
+    csvRows = BenchmarkData.csvRows(rows, 42);
+  }
+
+  @Benchmark
+  public byte[] csv() {
+    return reportGeneratorService.generateCsv("all Report", csvRows, BenchmarkData.CSV_HEADERS);
+  }
+
+  @Benchmark
+  public byte[] html() {
+    return reportGeneratorService.generateHtml("all Report", reportData);
+  }
+
+  @Benchmark
+  public byte[] markdown() {
+    return reportGeneratorService.generateMarkdown("all Report", reportData);
+  }
+
+  @Benchmark
+  public byte[] xlsx() throws IOException {
+    return reportGeneratorService.generateXlsx("all Report", reportData);
+  }
+
+  @Benchmark
+  public byte[] json() {
+    return reportGeneratorService.generateJson(reportData);
+  }
+
+  @Benchmark
+  public byte[] pdf() throws IOException {
+    return reportGeneratorService.generatePdf("all Report", reportData);
+  }
+}
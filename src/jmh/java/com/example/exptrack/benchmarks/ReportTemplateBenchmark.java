@@ -0,0 +1,214 @@
+package com.example.exptrack.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.exptrack.services.ReportGeneratorService;
+
+// Compiled-template HTML and Markdown renderers against the String.format and
+// StringBuilder renderers they replaced (kept below as Legacy), in reports per second.
+// The *Stream variants write to a discarding stream, as a streamed response would.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ReportTemplateBenchmark {
+
+  @Param({ "10000" })
+  private int rows;
+
+  private ReportGeneratorService reportGeneratorService;
+  private Map<String, Object> reportData;
+
+  @Setup
+  public void setUp() {
+    reportGeneratorService = new ReportGeneratorService();
+    reportData = BenchmarkData.reportData(rows, 42);
+  }
+
+  @Benchmark
+  public byte[] legacyHtml() {
+    return Legacy.html("all Report", reportData);
+  }
+
+  @Benchmark
+  public byte[] html() {
+    return reportGeneratorService.generateHtml("all Report", reportData);
+  }
+
+  @Benchmark
+  public void htmlStream() throws IOException {
+    reportGeneratorService.writeHtml("all Report", reportData, OutputStream.nullOutputStream());
+  }
+
+  @Benchmark
+  public byte[] legacyMarkdown() {
+    return Legacy.markdown("all Report", reportData);
+  }
+
+  @Benchmark
+  public byte[] markdown() {
+    return reportGeneratorService.generateMarkdown("all Report", reportData);
+  }
+
+  @Benchmark
+  public void markdownStream() throws IOException {
+    reportGeneratorService.writeMarkdown("all Report", reportData, OutputStream.nullOutputStream());
+  }
+
+  // The renderers as they were before templates: page shell through formatted(), one
+  // String.format per amount. The stylesheet is elided; it is a constant either way.
+  @SuppressWarnings("unchecked")
+  private static final class Legacy {
+
+    static byte[] html(String title, Map<String, Object> data) {
+      String html = """
+          <!DOCTYPE html>
+          <html>
+          <head>
+              <meta charset="UTF-8">
+              <title>%s</title>
+          </head>
+          <body>
+              <div class="report-container">
+                  <h1>📊 %s</h1>
+                  <div class="meta">
+                      Generated on: %s | Report ID: %s
+                  </div>
+                  %s
+                  <div class="footer">
+                      Generated by Expense Tracker | %s
+                  </div>
+              </div>
+          </body>
+          </html>
+          """.formatted(
+          title,
+          title,
+          LocalDate.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy")),
+          UUID.randomUUID().toString().substring(0, 8),
+          htmlContent(data),
+          LocalDate.now().getYear());
+      return html.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String htmlContent(Map<String, Object> data) {
+      StringBuilder content = new StringBuilder();
+      if (data.containsKey("summary")) {
+        content.append("<div class='summary-grid'>\n");
+        Map<String, Object> summary = (Map<String, Object>) data.get("summary");
+        for (Map.Entry<String, Object> entry : summary.entrySet()) {
+          content.append(String.format(
+              "<div class='stat-card'>\n" +
+                  "  <div class='stat-label'>%s</div>\n" +
+                  "  <div class='stat-value'>%s</div>\n" +
+                  "</div>\n",
+              formatLabel(entry.getKey()),
+              formatValue(entry.getValue())));
+        }
+        content.append("</div>\n");
+      }
+      if (data.containsKey("tables")) {
+        for (Map<String, Object> table : (List<Map<String, Object>>) data.get("tables")) {
+          StringBuilder tableHtml = new StringBuilder();
+          tableHtml.append("<h3>").append(table.getOrDefault("title", "Data")).append("</h3>\n");
+          tableHtml.append("<table>\n<thead>\n<tr>\n");
+          for (String header : (List<String>) table.getOrDefault("headers", List.of())) {
+            tableHtml.append("<th>").append(header).append("</th>\n");
+          }
+          tableHtml.append("</tr>\n</thead>\n<tbody>\n");
+          for (List<Object> row : (List<List<Object>>) table.getOrDefault("rows", List.of())) {
+            tableHtml.append("<tr>\n");
+            for (Object cell : row) {
+              tableHtml.append("<td>").append(formatValue(cell)).append("</td>\n");
+            }
+            tableHtml.append("</tr>\n");
+          }
+          tableHtml.append("</tbody>\n</table>\n");
+          content.append(tableHtml);
+        }
+      }
+      return content.toString();
+    }
+
+    static byte[] markdown(String title, Map<String, Object> data) {
+      StringBuilder md = new StringBuilder();
+      md.append("# ").append(title).append("\n\n");
+      md.append("**Generated:** ").append(LocalDate.now()).append("\n\n");
+      if (data.containsKey("summary")) {
+        md.append("## Summary\n\n");
+        Map<String, Object> summary = (Map<String, Object>) data.get("summary");
+        for (Map.Entry<String, Object> entry : summary.entrySet()) {
+          md.append("- **").append(formatLabel(entry.getKey())).append(":** ")
+              .append(formatValue(entry.getValue())).append("\n");
+        }
+        md.append("\n");
+      }
+      if (data.containsKey("tables")) {
+        for (Map<String, Object> table : (List<Map<String, Object>>) data.get("tables")) {
+          StringBuilder tableMd = new StringBuilder();
+          List<String> headers = (List<String>) table.getOrDefault("headers", List.of());
+          tableMd.append("## ").append(table.getOrDefault("title", "Data")).append("\n\n");
+          tableMd.append("| ");
+          for (String header : headers) {
+            tableMd.append(header).append(" | ");
+          }
+          tableMd.append("\n|");
+          for (int i = 0; i < headers.size(); i++) {
+            tableMd.append("---|");
+          }
+          tableMd.append("\n");
+          for (List<Object> row : (List<List<Object>>) table.getOrDefault("rows", List.of())) {
+            tableMd.append("| ");
+            for (Object cell : row) {
+              tableMd.append(formatValue(cell)).append(" | ");
+            }
+            tableMd.append("\n");
+          }
+          tableMd.append("\n");
+          md.append(tableMd);
+        }
+      }
+      return md.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String formatLabel(String label) {
+      return label.replaceAll("([A-Z])", " $1").replaceAll("^\\s+", "").toLowerCase();
+    }
+
+    private static String formatValue(Object value) {
+      if (value instanceof Number) {
+        double num = ((Number) value).doubleValue();
+        if (Math.abs(num) >= 1000) {
+          return String.format("$%,.0f", num);
+        } else if (Math.abs(num) >= 100) {
+          return String.format("$%,.1f", num);
+        } else {
+          return String.format("$%,.2f", num);
+        }
+      }
+      return value.toString();
+    }
+  }
+}
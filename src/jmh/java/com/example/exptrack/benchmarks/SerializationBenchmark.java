@@ -0,0 +1,166 @@
+package com.example.exptrack.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.exptrack.dtos.BudgetVsActualDTO;
+import com.example.exptrack.dtos.CategoryStatsDTO;
+import com.example.exptrack.dtos.TransactionDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Serialization CPU of the category stats and budget vs actual responses as the
+// typed records the endpoints now return versus the HashMap trees they used to
+// build, plus the cost of gzipping a large transaction list. Setup prints each
+// payload's size as JSON and gzipped, i.e. bytes on the wire without and with
+// server.compression.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+  @Param({ "20", "200" })
+  private int categories;
+
+  // Same settings as the application's Spring Boot ObjectMapper
+  private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+  private CategoryStatsDTO statsRecord;
+  private Map<String, Object> statsMap;
+  private BudgetVsActualDTO budgetRecord;
+  private Map<String, Object> budgetMap;
+  private List<TransactionDTO> transactions;
+  private byte[] transactionsJson;
+
+  @Setup
+  public void setUp() throws IOException {
+    Random random = new Random(42);
+    List<CategoryStatsDTO.CategoryDetail> expenses = new ArrayList<>();
+    List<CategoryStatsDTO.CategoryDetail> revenues = new ArrayList<>();
+    List<BudgetVsActualDTO.CategoryVariance> variances = new ArrayList<>();
+    for (int i = 0; i < categories; i++) {
+      double amount = Math.round(random.nextDouble() * 500_000) / 100.0;
+      long count = 1 + random.nextInt(200);
+      (i % 4 == 0 ? revenues : expenses).add(new CategoryStatsDTO.CategoryDetail(
+          "Category " + i, i % 4 == 0 ? "revenue" : "expense", amount, count, amount / count, 100.0 / categories));
+      double budget = Math.round(random.nextDouble() * 500_000) / 100.0;
+      variances.add(new BudgetVsActualDTO.CategoryVariance(
+          "Category " + i, budget, amount, amount - budget, (amount - budget) / budget * 100));
+    }
+    statsRecord = new CategoryStatsDTO(expenses, revenues, "month",
+        new CategoryStatsDTO.Summary(12_345.67, 23_456.78, 123.45, "Category 1", "Category 0"));
+    budgetRecord = new BudgetVsActualDTO(variances,
+        new BudgetVsActualDTO.Variance(34_567.89, 12_345.67, -22_222.22, -64.29), "month");
+    statsMap = asMap(statsRecord);
+    budgetMap = asMap(budgetRecord);
+
+    // What getTransactions returns for limit=categories * 50
+    transactions = new ArrayList<>();
+    for (int i = 0; i < categories * 50; i++) {
+      Date date = new Date(BenchmarkData.START + (long) (random.nextDouble() * BenchmarkData.SPAN));
+      String category = BenchmarkData.CATEGORIES[random.nextInt(BenchmarkData.CATEGORIES.length)];
+      transactions.add(new TransactionDTO((long) i + 1, Math.round(random.nextDouble() * 30_000) / 100.0,
+          "expense", category, null, "Expense: " + category, date, date, "expense"));
+    }
+    transactionsJson = mapper.writeValueAsBytes(transactions);
+
+    System.out.println();
+    printSize("category stats", mapper.writeValueAsBytes(statsRecord));
+    printSize("budget vs actual", mapper.writeValueAsBytes(budgetRecord));
+    printSize("transactions (" + transactions.size() + ")", transactionsJson);
+  }
+
+  @Benchmark
+  public byte[] categoryStatsRecord() throws IOException {
+    return mapper.writeValueAsBytes(statsRecord);
+  }
+
+  @Benchmark
+  public byte[] categoryStatsMap() throws IOException {
+    return mapper.writeValueAsBytes(statsMap);
+  }
+
+  @Benchmark
+  public byte[] budgetVsActualRecord() throws IOException {
+    return mapper.writeValueAsBytes(budgetRecord);
+  }
+
+  @Benchmark
+  public byte[] budgetVsActualMap() throws IOException {
+    return mapper.writeValueAsBytes(budgetMap);
+  }
+
+  @Benchmark
+  public byte[] transactions() throws IOException {
+    return mapper.writeValueAsBytes(transactions);
+  }
+
+  // The extra CPU server.compression spends on the same payload
+  @Benchmark
+  public byte[] transactionsGzip() throws IOException {
+    return gzip(transactionsJson);
+  }
+
+  // Rebuilds the HashMap tree the endpoints used to return, field for field
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> asMap(Object record) {
+    Map<String, Object> tree = mapper.convertValue(record, Map.class);
+    return deepHashMap(tree);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> deepHashMap(Map<String, Object> tree) {
+    Map<String, Object> copy = new HashMap<>();
+    tree.forEach((key, value) -> {
+      if (value instanceof Map) {
+        copy.put(key, deepHashMap((Map<String, Object>) value));
+      } else if (value instanceof List<?> list) {
+        List<Object> items = new ArrayList<>(list.size());
+        for (Object item : list) {
+          items.add(item instanceof Map ? deepHashMap((Map<String, Object>) item) : item);
+        }
+        copy.put(key, items);
+      } else {
+        copy.put(key, value);
+      }
+    });
+    return copy;
+  }
+
+  private static byte[] gzip(byte[] bytes) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(bytes);
+    }
+    return out.toByteArray();
+  }
+
+  private static void printSize(String payload, byte[] json) throws IOException {
+    int gzipped = gzip(json).length;
+    System.out.printf("%-24s %9d bytes JSON, %9d bytes gzip (%.1fx)%n",
+        payload, json.length, gzipped, (double) json.length / gzipped);
+  }
+}
@@ -0,0 +1,315 @@
+package com.example.exptrack.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+// Writes a realistic multi-tenant dataset straight into the users, expenses and
+// revenue tables with COPY:
+// - transactions per user follow a Pareto (power-law) distribution: most users are
+//   light, a few are very heavy
+// - dates follow a seasonal curve (December peak, January/February trough)
+// - categories and sources are Zipf distributed over a long tail, and each user
+//   favours a few of them
+// Every user is generated from its own seeded generator, so a (seed, users, mean) triple
+// always produces the same rows whatever the number of worker threads.
+//
+// Standalone: mvn -Ploadtest test-compile exec:exec@generate-dataset
+//   -Ddataset.args="-url jdbc:postgresql://localhost:5432/exptrack -user u -password p -scale 1 -seed 42"
+// Scale 1 is 1,000 users averaging 1,000 transactions each (about a million rows).
+public class DatasetGenerator {
+
+  public static final String PASSWORD = "loadtest-password";
+
+  static final String[] CATEGORIES = buildNames(new String[] { "Food", "Rent", "Transport", "Utilities", "Health",
+      "Leisure", "Shopping", "Education", "Travel", "Insurance", "Gifts", "Subscriptions", "Pets", "Childcare",
+      "Clothing", "Electronics", "Furniture", "Charity", "Taxes", "Fees", "Books", "Games", "Music", "Sports",
+      "Beauty", "Garden", "Repairs", "Parking", "Tolls", "Coffee" }, "Category", 200);
+  static final String[] SOURCES = buildNames(new String[] { "Salary", "Freelance", "Dividends", "Interest",
+      "Rental", "Refund", "Bonus", "Gift", "Resale", "Cashback" }, "Source", 40);
+
+  // Relative spend by month, January first
+  private static final double[] SEASONALITY = { 0.80, 0.85, 0.95, 1.00, 1.00, 1.10, 1.20, 1.15, 0.95, 1.00, 1.15,
+      1.45 };
+  private static final double PARETO_ALPHA = 1.5;
+  private static final int COPY_BUFFER = 1 << 20;
+
+  public record Config(int users, int meanTransactionsPerUser, double categorySkew, int historyMonths, long seed) {
+  }
+
+  public interface ConnectionFactory {
+    Connection open() throws SQLException;
+  }
+
+  private final ConnectionFactory connections;
+  private final Config config;
+  private final double[] categoryWeights;
+  private final double[] sourceWeights;
+
+  public DatasetGenerator(ConnectionFactory connections, Config config) {
+    this.connections = connections;
+    this.config = config;
+    this.categoryWeights = zipf(CATEGORIES.length, config.categorySkew());
+    this.sourceWeights = zipf(SOURCES.length, config.categorySkew());
+  }
+
+  public static String email(int user) {
+    return "loaduser" + user + "@loadtest.local";
+  }
+
+  // Returns the database ids of the generated users, in generation order
+  public List<Long> generate(int threads) throws Exception {
+    long firstId;
+    try (Connection connection = connections.open(); Statement statement = connection.createStatement()) {
+      createTablesIfMissing(statement);
+      try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM users")) {
+        rs.next();
+        firstId = rs.getLong(1);
+      }
+
+      String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+      CopyWriter users = new CopyWriter(connection, "COPY users (id, username, email, password) FROM STDIN");
+      for (int user = 0; user < config.users(); user++) {
+        users.row(firstId + user, "loaduser" + user, email(user), hash);
+      }
+      users.finish();
+      statement.execute("SELECT setval(pg_get_serial_sequence('users', 'id'), (SELECT MAX(id) FROM users))");
+    }
+
+    // Users are split into contiguous slices, one COPY stream per table per slice
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Long>> slices = new ArrayList<>();
+      int sliceSize = (config.users() + threads - 1) / threads;
+      for (int from = 0; from < config.users(); from += sliceSize) {
+        int start = from;
+        int end = Math.min(from + sliceSize, config.users());
+        slices.add(pool.submit(() -> writeTransactions(firstId, start, end)));
+      }
+      long rows = 0;
+      for (Future<Long> slice : slices) {
+        rows += slice.get();
+      }
+      System.out.printf("Generated %d users and %d transactions%n", config.users(), rows);
+    } finally {
+      pool.shutdownNow();
+    }
+
+    try (Connection connection = connections.open(); Statement statement = connection.createStatement()) {
+      statement.execute("ANALYZE users");
+      statement.execute("ANALYZE expenses");
+      statement.execute("ANALYZE revenue");
+      // Spend counters are derived data: emptying them and their backfill marker makes
+      // the application rebuild them from expenses at its next start
+      try (ResultSet rs = statement.executeQuery("SELECT to_regclass('budget_spend') IS NOT NULL")) {
+        rs.next();
+        if (rs.getBoolean(1)) {
+          statement.execute("TRUNCATE budget_spend");
+        }
+      }
+      try (ResultSet rs = statement.executeQuery("SELECT to_regclass('data_migrations') IS NOT NULL")) {
+        rs.next();
+        if (rs.getBoolean(1)) {
+          statement.execute("DELETE FROM data_migrations WHERE name = 'budget-spend-backfill'");
+        }
+      }
+    }
+
+    List<Long> ids = new ArrayList<>(config.users());
+    for (int user = 0; user < config.users(); user++) {
+      ids.add(firstId + user);
+    }
+    return ids;
+  }
+
+  private long writeTransactions(long firstId, int fromUser, int toUser) throws SQLException {
+    long rows = 0;
+    long historyEnd = LocalDate.now().plusDays(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC) * 1000;
+    LocalDateTime historyStart = LocalDate.now().withDayOfMonth(1).minusMonths(config.historyMonths() - 1)
+        .atStartOfDay();
+
+    // One connection per table, so both COPY streams can be open at once
+    try (Connection expenseConnection = connections.open(); Connection revenueConnection = connections.open()) {
+      CopyWriter expenses = new CopyWriter(expenseConnection,
+          "COPY expenses (amount, creation_date, last_modified, user_id, category) FROM STDIN");
+      CopyWriter revenues = new CopyWriter(revenueConnection,
+          "COPY revenue (amount, creation_date, last_modified, user_id, source) FROM STDIN");
+
+      for (int user = fromUser; user < toUser; user++) {
+        // SplittableRandom mixes its seed, so consecutive users are not correlated
+        RandomGenerator random = new SplittableRandom(config.seed() * 1_000_003L + user);
+        int transactions = transactionCount(random);
+        int favouriteCategory = pick(random, categoryWeights);
+        int favouriteSource = pick(random, sourceWeights);
+        double userScale = Math.exp(random.nextGaussian() * 0.5);
+
+        for (int i = 0; i < transactions; i++) {
+          boolean revenue = random.nextInt(5) == 0;
+          LocalDateTime date = seasonalDate(random, historyStart, historyEnd);
+          double amount = Math.round(Math.exp(3 + random.nextGaussian()) * userScale
+              * SEASONALITY[date.getMonthValue() - 1] * (revenue ? 5 : 1) * 100) / 100.0;
+          String timestamp = date.toString().replace('T', ' ');
+          if (revenue) {
+            String source = SOURCES[random.nextInt(3) == 0 ? favouriteSource : pick(random, sourceWeights)];
+            revenues.row(amount, timestamp, timestamp, firstId + user, source);
+          } else {
+            String category = CATEGORIES[random.nextInt(3) == 0 ? favouriteCategory : pick(random, categoryWeights)];
+            expenses.row(amount, timestamp, timestamp, firstId + user, category);
+          }
+          rows++;
+        }
+      }
+      expenses.finish();
+      revenues.finish();
+    }
+    return rows;
+  }
+
+  private int transactionCount(RandomGenerator random) {
+    double minimum = config.meanTransactionsPerUser() * (PARETO_ALPHA - 1) / PARETO_ALPHA;
+    double count = minimum / Math.pow(1 - random.nextDouble(), 1 / PARETO_ALPHA);
+    return (int) Math.min(count, config.meanTransactionsPerUser() * 50.0);
+  }
+
+  // Uniform over the history, thinned by the month's seasonal weight
+  private static LocalDateTime seasonalDate(RandomGenerator random, LocalDateTime start, long endMillis) {
+    long startMillis = start.toEpochSecond(ZoneOffset.UTC) * 1000;
+    while (true) {
+      long millis = startMillis + (long) (random.nextDouble() * (endMillis - startMillis));
+      LocalDateTime date = LocalDateTime.ofEpochSecond(millis / 1000, 0, ZoneOffset.UTC);
+      if (random.nextDouble() * 1.45 < SEASONALITY[date.getMonthValue() - 1]) {
+        return date;
+      }
+    }
+  }
+
+  private static int pick(RandomGenerator random, double[] cumulativeWeights) {
+    double r = random.nextDouble();
+    int low = 0;
+    int high = cumulativeWeights.length - 1;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (cumulativeWeights[mid] > r) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+
+  private static double[] zipf(int n, double exponent) {
+    double[] cumulative = new double[n];
+    double total = 0;
+    for (int i = 0; i < n; i++) {
+      total += 1.0 / Math.pow(i + 1, exponent);
+      cumulative[i] = total;
+    }
+    for (int i = 0; i < n; i++) {
+      cumulative[i] /= total;
+    }
+    return cumulative;
+  }
+
+  private static String[] buildNames(String[] head, String tailPrefix, int total) {
+    String[] names = new String[total];
+    System.arraycopy(head, 0, names, 0, head.length);
+    for (int i = head.length; i < total; i++) {
+      names[i] = String.format(Locale.ROOT, "%s %03d", tailPrefix, i - head.length + 1);
+    }
+    return names;
+  }
+
+  // Same column types Hibernate creates, so the generator also works on an empty database
+  private static void createTablesIfMissing(Statement statement) throws SQLException {
+    statement.execute("CREATE TABLE IF NOT EXISTS users (id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+        + "username varchar(255) NOT NULL UNIQUE, email varchar(255) NOT NULL UNIQUE, password varchar(255) NOT NULL)");
+    statement.execute("CREATE TABLE IF NOT EXISTS expenses (id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+        + "amount float(53) NOT NULL, creation_date timestamp(6) NOT NULL, last_modified timestamp(6) NOT NULL, "
+        + "user_id bigint NOT NULL REFERENCES users, category varchar(255) NOT NULL)");
+    statement.execute("CREATE TABLE IF NOT EXISTS revenue (id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+        + "amount float(53) NOT NULL, creation_date timestamp(6) NOT NULL, last_modified timestamp(6) NOT NULL, "
+        + "user_id bigint NOT NULL REFERENCES users, source varchar(255) NOT NULL)");
+  }
+
+  // Buffers rows in COPY text format and streams them to the server in 1 MB chunks
+  private static class CopyWriter {
+    private final CopyIn copy;
+    private final StringBuilder buffer = new StringBuilder(COPY_BUFFER + 1024);
+
+    CopyWriter(Connection connection, String sql) throws SQLException {
+      this.copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+    }
+
+    void row(Object... values) throws SQLException {
+      for (int i = 0; i < values.length; i++) {
+        if (i > 0) {
+          buffer.append('\t');
+        }
+        buffer.append(values[i]);
+      }
+      buffer.append('\n');
+      if (buffer.length() >= COPY_BUFFER) {
+        flush();
+      }
+    }
+
+    void finish() throws SQLException {
+      flush();
+      copy.endCopy();
+    }
+
+    private void flush() throws SQLException {
+      byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+      copy.writeToCopy(bytes, 0, bytes.length);
+      buffer.setLength(0);
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = new HashMap<>();
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      options.put(args[i].replaceFirst("^-+", ""), args[i + 1]);
+    }
+    String url = options.get("url");
+    if (url == null) {
+      throw new IllegalArgumentException("-url <jdbc url> is required");
+    }
+    String user = options.getOrDefault("user", "postgres");
+    String password = options.getOrDefault("password", "");
+    double scale = Double.parseDouble(options.getOrDefault("scale", "1"));
+
+    Config config = new Config(
+        Math.max(1, (int) Math.round(1000 * scale)),
+        Integer.parseInt(options.getOrDefault("transactions", "1000")),
+        Double.parseDouble(options.getOrDefault("skew", "1.1")),
+        Integer.parseInt(options.getOrDefault("months", "36")),
+        Long.parseLong(options.getOrDefault("seed", "42")));
+
+    long start = System.currentTimeMillis();
+    new DatasetGenerator(() -> DriverManager.getConnection(url, user, password), config)
+        .generate(Integer.parseInt(options.getOrDefault("threads",
+            String.valueOf(Runtime.getRuntime().availableProcessors()))));
+    System.out.printf("Done in %d ms%n", System.currentTimeMillis() - start);
+  }
+}
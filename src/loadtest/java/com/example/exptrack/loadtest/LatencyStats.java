@@ -0,0 +1,95 @@
+package com.example.exptrack.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Per-endpoint latency samples and error counts, collected by all workers.
+// Samples are kept exactly and sorted once at the end, which is fine at load-test volumes.
+public class LatencyStats {
+
+  private final Map<String, Series> series = new TreeMap<>();
+
+  public synchronized void record(String endpoint, long nanos, boolean error) {
+    series.computeIfAbsent(endpoint, k -> new Series()).add(nanos, error);
+  }
+
+  public synchronized String toTable(double seconds) {
+    StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+        "%-28s %9s %9s %9s %9s %9s %9s %8s%n",
+        "endpoint", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors"));
+    Series total = new Series();
+    for (Map.Entry<String, Series> entry : series.entrySet()) {
+      table.append(row(entry.getKey(), entry.getValue(), seconds));
+      total.addAll(entry.getValue());
+    }
+    table.append(row("TOTAL", total, seconds));
+    return table.toString();
+  }
+
+  // extra maps member names to already-serialised JSON values
+  public synchronized String toJson(double seconds, Map<String, String> extra) {
+    StringBuilder json = new StringBuilder("{\n  \"durationSeconds\": ")
+        .append(String.format(Locale.ROOT, "%.1f", seconds));
+    extra.forEach((name, value) -> json.append(",\n  \"").append(name).append("\": ").append(value));
+    json.append(",\n  \"endpoints\": {");
+    int i = 0;
+    for (Map.Entry<String, Series> entry : series.entrySet()) {
+      Series s = entry.getValue();
+      long[] sorted = s.sorted();
+      json.append(i++ > 0 ? ",\n" : "\n")
+          .append("    \"").append(entry.getKey()).append("\": {")
+          .append(String.format(Locale.ROOT,
+              "\"requests\": %d, \"throughput\": %.2f, \"p50Ms\": %.3f, \"p95Ms\": %.3f, \"p99Ms\": %.3f, "
+                  + "\"maxMs\": %.3f, \"errors\": %d, \"errorRate\": %.5f}",
+              s.count, s.count / seconds, millis(sorted, 0.50), millis(sorted, 0.95), millis(sorted, 0.99),
+              millis(sorted, 1.0), s.errors, s.count > 0 ? (double) s.errors / s.count : 0.0));
+    }
+    return json.append("\n  }\n}\n").toString();
+  }
+
+  private static String row(String name, Series s, double seconds) {
+    long[] sorted = s.sorted();
+    return String.format(Locale.ROOT, "%-28s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %7.2f%%%n",
+        name, s.count, s.count / seconds, millis(sorted, 0.50), millis(sorted, 0.95), millis(sorted, 0.99),
+        millis(sorted, 1.0), s.count > 0 ? 100.0 * s.errors / s.count : 0.0);
+  }
+
+  private static double millis(long[] sorted, double quantile) {
+    if (sorted.length == 0) {
+      return 0.0;
+    }
+    int index = (int) Math.ceil(quantile * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+  }
+
+  private static class Series {
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+
+    void add(long nanos, boolean error) {
+      if (count == samples.length) {
+        samples = Arrays.copyOf(samples, count * 2);
+      }
+      samples[count++] = nanos;
+      if (error) {
+        errors++;
+      }
+    }
+
+    void addAll(Series other) {
+      for (int i = 0; i < other.count; i++) {
+        add(other.samples[i], false);
+      }
+      errors += other.errors;
+    }
+
+    long[] sorted() {
+      long[] sorted = Arrays.copyOf(samples, count);
+      Arrays.sort(sorted);
+      return sorted;
+    }
+  }
+}
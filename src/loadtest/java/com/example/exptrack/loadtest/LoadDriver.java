@@ -0,0 +1,190 @@
+package com.example.exptrack.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Closed-loop driver: each worker repeatedly picks a weighted request and a random
+// logged-in user, sends it and records the latency under the endpoint's name.
+// Anything other than a 2xx counts as an error.
+public class LoadDriver {
+
+  private record Session(long userId, String email, String cookie, String syncToken) {
+  }
+
+  private record Step(String name, int weight, BiFunction<Session, Random, HttpRequest> request) {
+  }
+
+  private static final Pattern SYNC_TOKEN = Pattern.compile("\"syncToken\":\"([^\"]+)\"");
+
+  private final HttpClient client;
+  private final String baseUrl;
+  private final List<Step> steps = new ArrayList<>();
+  private final List<Session> sessions = new ArrayList<>();
+  private int totalWeight;
+
+  public LoadDriver(String baseUrl) {
+    this.baseUrl = baseUrl;
+    this.client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .version(HttpClient.Version.HTTP_1_1)
+        .build();
+
+    String today = LocalDate.now().toString();
+    String yearAgo = LocalDate.now().minusYears(1).toString();
+
+    step("transactions", 20, (s, r) -> get(s, "/transactions?timeFrame=month&limit=20&page=1"));
+    step("transactions/recent", 15, (s, r) -> get(s, "/transactions/recent?limit=10"));
+    step("transactions/summary", 15, (s, r) -> get(s, "/transactions/summary?timeFrame=month"));
+    step("categories/stats", 10, (s, r) -> get(s, "/transactions/categories/stats?timeFrame=year"));
+    step("analysis/trend", 8, (s, r) -> get(s, "/transactions/analysis/trend?timeFrame=monthly"));
+    step("analysis/budget-vs-actual", 5, (s, r) -> get(s, "/transactions/analysis/budget-vs-actual?timeFrame=month"));
+    step("reports/income-statement", 5,
+        (s, r) -> get(s, "/transactions/reports/income-statement?startDate=" + yearAgo + "&endDate=" + today));
+    step("reports/expense", 3,
+        (s, r) -> get(s, "/transactions/reports/expense?startDate=" + yearAgo + "&endDate=" + today));
+    step("transactions:create", 10, (s, r) -> post(s, "/transactions", String.format(Locale.ROOT,
+        "{\"type\":\"expense\",\"amount\":%.2f,\"category\":\"%s\"}",
+        1 + r.nextDouble() * 100, DatasetGenerator.CATEGORIES[r.nextInt(10)])));
+    // CSV reports are only built for the expense type; "all" would render an empty file
+    step("reports/generate:csv", 4, (s, r) -> report(s, "expense", "csv", yearAgo, today));
+    step("reports/generate:pdf", 2, (s, r) -> report(s, "all", "pdf", yearAgo, today));
+    step("reports/generate:xlsx", 1, (s, r) -> report(s, "all", "xlsx", yearAgo, today));
+    step("reports/bundle", 1, (s, r) -> post(s, "/transactions/reports/bundle", String.format(
+        "{\"type\":\"all\",\"startDate\":\"%s\",\"endDate\":\"%s\"}", yearAgo, today)));
+    step("transactions/export:cbor", 1,
+        (s, r) -> userRequest(s, "/transactions/export").header("Accept", "application/cbor").GET().build());
+    // Offline client catching up from the token it got at login
+    step("transactions/sync", 5, (s, r) -> get(s, "/transactions/sync?token=" + s.syncToken()));
+    step("auth/login", 2, (s, r) -> login(s.email()));
+  }
+
+  // Logs in the first `count` users; requests are spread over these sessions
+  public void login(List<Long> userIds, int count) throws IOException, InterruptedException {
+    for (int i = 0; i < Math.min(count, userIds.size()); i++) {
+      String email = DatasetGenerator.email(i);
+      HttpResponse<String> response = client.send(login(email), HttpResponse.BodyHandlers.ofString());
+      if (response.statusCode() != 200) {
+        throw new IllegalStateException("Login failed for " + email + ": " + response.statusCode());
+      }
+      Session session = new Session(userIds.get(i), email, cookies(response), null);
+      sessions.add(new Session(session.userId(), email, session.cookie(), syncToken(session)));
+    }
+  }
+
+  private String syncToken(Session session) throws IOException, InterruptedException {
+    HttpResponse<String> response = client.send(get(session, "/transactions/sync"),
+        HttpResponse.BodyHandlers.ofString());
+    Matcher token = SYNC_TOKEN.matcher(response.body());
+    if (response.statusCode() != 200 || !token.find()) {
+      throw new IllegalStateException("Sync failed for " + session.email() + ": " + response.statusCode());
+    }
+    return token.group(1);
+  }
+
+  public void run(LatencyStats stats, int concurrency, long durationMillis, long seed) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + durationMillis;
+    ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+    for (int w = 0; w < concurrency; w++) {
+      Random random = new Random(seed + w);
+      workers.submit(() -> {
+        while (System.currentTimeMillis() < deadline) {
+          Step step = pick(random);
+          Session session = sessions.get(random.nextInt(sessions.size()));
+          long start = System.nanoTime();
+          boolean error;
+          try {
+            HttpResponse<byte[]> response = client.send(step.request().apply(session, random),
+                HttpResponse.BodyHandlers.ofByteArray());
+            error = response.statusCode() / 100 != 2;
+          } catch (IOException e) {
+            error = true;
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+          if (stats != null) {
+            stats.record(step.name(), System.nanoTime() - start, error);
+          }
+        }
+      });
+    }
+    workers.shutdown();
+    workers.awaitTermination(durationMillis + 60_000, TimeUnit.MILLISECONDS);
+  }
+
+  private void step(String name, int weight, BiFunction<Session, Random, HttpRequest> request) {
+    steps.add(new Step(name, weight, request));
+    totalWeight += weight;
+  }
+
+  private Step pick(Random random) {
+    int r = random.nextInt(totalWeight);
+    for (Step step : steps) {
+      r -= step.weight();
+      if (r < 0) {
+        return step;
+      }
+    }
+    return steps.get(steps.size() - 1);
+  }
+
+  private HttpRequest get(Session session, String path) {
+    return userRequest(session, path).GET().build();
+  }
+
+  private HttpRequest post(Session session, String path, String json) {
+    return userRequest(session, path)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(json))
+        .build();
+  }
+
+  private HttpRequest report(Session session, String type, String format, String startDate, String endDate) {
+    return post(session, "/transactions/reports/generate", String.format(
+        "{\"type\":\"%s\",\"startDate\":\"%s\",\"endDate\":\"%s\",\"format\":\"%s\"}",
+        type, startDate, endDate, format));
+  }
+
+  private HttpRequest.Builder userRequest(Session session, String path) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + "/api/users/" + session.userId() + path))
+        .timeout(Duration.ofSeconds(60))
+        .header("Cookie", session.cookie());
+  }
+
+  private HttpRequest login(String email) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+        .timeout(Duration.ofSeconds(60))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(String.format(
+            "{\"email\":\"%s\",\"password\":\"%s\"}", email, DatasetGenerator.PASSWORD)))
+        .build();
+  }
+
+  // The auth cookies are Secure; HttpClient's cookie handler would not send them over
+  // plain http, so they are replayed by hand
+  private static String cookies(HttpResponse<?> response) {
+    List<String> pairs = new ArrayList<>();
+    for (String header : response.headers().allValues("Set-Cookie")) {
+      String pair = header.split(";", 2)[0];
+      if (pair.startsWith("access_token=") || pair.startsWith("refresh_token=")) {
+        pairs.add(pair);
+      }
+    }
+    return String.join("; ", pairs);
+  }
+}
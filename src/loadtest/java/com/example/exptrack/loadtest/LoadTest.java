@@ -0,0 +1,192 @@
+package com.example.exptrack.loadtest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.copy.PGCopyInputStream;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.exptrack.ExpTrackApplication;
+import com.example.exptrack.services.BudgetService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+// End-to-end load test: embedded Postgres, the real application on a random
+// plain-http port, synthetic data, then a timed closed-loop run. Everything runs
+// locally; nothing is downloaded at run time once the Maven dependencies resolved.
+//
+// Options (defaults in brackets): -users [200] -transactions [500] mean per user,
+// -skew [1.1] category Zipf exponent, -sessions [100] users logged in and driven,
+// -concurrency [16], -warmup [15] and -duration [60] seconds, -seed [42],
+// -pool [10] connection pool size, -replica [false], -out [loadtest-result.json].
+// The dataset comes from DatasetGenerator. The application runs with the prod profile
+// so the pool and driver settings under test are the production ones. With -replica
+// true a second embedded Postgres serves read-only transactions; it gets a copy of
+// the seeded data, so like a lagging replica it never sees writes made during the run.
+public class LoadTest {
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = parse(args);
+    int users = Integer.parseInt(options.getOrDefault("users", "200"));
+    int transactions = Integer.parseInt(options.getOrDefault("transactions", "500"));
+    double skew = Double.parseDouble(options.getOrDefault("skew", "1.1"));
+    int sessions = Integer.parseInt(options.getOrDefault("sessions", "100"));
+    int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+    long warmupSeconds = Long.parseLong(options.getOrDefault("warmup", "15"));
+    long durationSeconds = Long.parseLong(options.getOrDefault("duration", "60"));
+    long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+    int poolSize = Integer.parseInt(options.getOrDefault("pool", "10"));
+    boolean useReplica = Boolean.parseBoolean(options.getOrDefault("replica", "false"));
+    Path out = Path.of(options.getOrDefault("out", "loadtest-result.json"));
+
+    // Devtools would restart the context in a second classloader
+    System.setProperty("spring.devtools.restart.enabled", "false");
+
+    try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        EmbeddedPostgres replica = useReplica ? EmbeddedPostgres.builder().start() : null) {
+      Map<String, String> properties = new HashMap<>();
+      properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+      properties.put("spring.datasource.username", "postgres");
+      properties.put("spring.datasource.password", "postgres");
+      properties.put("spring.profiles.active", "prod");
+      properties.put("spring.datasource.hikari.maximum-pool-size", String.valueOf(poolSize));
+      properties.put("spring.datasource.hikari.minimum-idle", String.valueOf(poolSize));
+      if (replica != null) {
+        properties.put("spring.datasource.replica.url", replica.getJdbcUrl("postgres", "postgres"));
+      }
+      properties.put("server.port", "0");
+      properties.put("management.server.port", "0");
+      properties.put("server.ssl.enabled", "false");
+      properties.put("jwt.secret", "loadtest-secret-loadtest-secret-loadtest-secret-0123456789");
+      properties.put("jwt.expiration", "3600000");
+      properties.put("jwt.refresh-expiration", "86400000");
+
+      // Passed as command-line arguments so they take precedence over application.properties
+      ConfigurableApplicationContext context = new SpringApplicationBuilder(ExpTrackApplication.class)
+          .run(properties.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new));
+      try {
+        long seedStart = System.currentTimeMillis();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        DatasetGenerator generator = new DatasetGenerator(dataSource::getConnection,
+            new DatasetGenerator.Config(users, transactions, skew, 36, seed));
+        List<Long> userIds = generator.generate(Runtime.getRuntime().availableProcessors());
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+          // Monthly budgets on the five most common categories
+          statement.execute("INSERT INTO budgets (user_id, category, amount) "
+              + "SELECT u.id, c.category, 500 FROM users u "
+              + "CROSS JOIN unnest(ARRAY['Food', 'Rent', 'Transport', 'Utilities', 'Health']) AS c(category)");
+        }
+        // The application started on empty tables, so its startup backfill had nothing to do
+        context.getBean(BudgetService.class).backfillSpendCounters();
+        if (replica != null) {
+          copyTables(dataSource, replica.getPostgresDatabase(), "users", "expenses", "revenue", "budgets", "budget_spend",
+              "transaction_tombstones", "report_snapshots");
+        }
+        System.out.printf("Seeded %d users in %d ms%n", users, System.currentTimeMillis() - seedStart);
+
+        String port = context.getEnvironment().getProperty("local.server.port");
+        LoadDriver driver = new LoadDriver("http://localhost:" + port);
+        driver.login(userIds, sessions);
+
+        System.out.printf("Warming up for %d s with %d workers%n", warmupSeconds, concurrency);
+        driver.run(null, concurrency, warmupSeconds * 1000, seed);
+
+        System.out.printf("Measuring for %d s with %d workers%n", durationSeconds, concurrency);
+        LatencyStats stats = new LatencyStats();
+        Map<String, PoolMonitor> pools = new LinkedHashMap<>();
+        pools.put("pool", new PoolMonitor(context.getBean(MeterRegistry.class), "exptrack"));
+        if (replica != null) {
+          pools.put("replicaPool", new PoolMonitor(context.getBean(MeterRegistry.class), "exptrack-replica"));
+        }
+        for (PoolMonitor pool : pools.values()) {
+          pool.start();
+        }
+        long start = System.nanoTime();
+        driver.run(stats, concurrency, durationSeconds * 1000, seed + concurrency);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Map<String, String> poolJson = new LinkedHashMap<>();
+        for (Map.Entry<String, PoolMonitor> pool : pools.entrySet()) {
+          pool.getValue().stop();
+          poolJson.put(pool.getKey(), pool.getValue().toJson());
+        }
+
+        System.out.println();
+        System.out.print(stats.toTable(seconds));
+        pools.values().forEach(pool -> System.out.print(pool.toTable()));
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        Files.writeString(out, stats.toJson(seconds, poolJson));
+        System.out.println("Results written to " + out);
+      } finally {
+        context.close();
+      }
+    }
+  }
+
+  // Recreates each table (columns and indexes, no constraints) on the target and streams
+  // its rows across with COPY
+  private static void copyTables(DataSource source, DataSource target, String... tables) throws Exception {
+    try (Connection from = source.getConnection(); Connection to = target.getConnection();
+        Statement toStatement = to.createStatement()) {
+      CopyManager copyIn = to.unwrap(PGConnection.class).getCopyAPI();
+      for (String table : tables) {
+        String columns;
+        List<String> indexes = new ArrayList<>();
+        try (PreparedStatement query = from.prepareStatement("SELECT string_agg(quote_ident(attname) || ' ' "
+            + "|| format_type(atttypid, atttypmod), ', ' ORDER BY attnum) FROM pg_attribute "
+            + "WHERE attrelid = CAST(? AS regclass) AND attnum > 0 AND NOT attisdropped")) {
+          query.setString(1, table);
+          try (ResultSet rs = query.executeQuery()) {
+            rs.next();
+            columns = rs.getString(1);
+          }
+        }
+        try (PreparedStatement query = from.prepareStatement("SELECT indexdef FROM pg_indexes WHERE tablename = ?")) {
+          query.setString(1, table);
+          try (ResultSet rs = query.executeQuery()) {
+            while (rs.next()) {
+              indexes.add(rs.getString(1));
+            }
+          }
+        }
+
+        toStatement.execute("CREATE TABLE " + table + " (" + columns + ")");
+        long rows;
+        try (PGCopyInputStream rowsOut = new PGCopyInputStream(from.unwrap(PGConnection.class),
+            "COPY " + table + " TO STDOUT (FORMAT binary)")) {
+          rows = copyIn.copyIn("COPY " + table + " FROM STDIN (FORMAT binary)", rowsOut);
+        }
+        for (String index : indexes) {
+          toStatement.execute(index);
+        }
+        toStatement.execute("ANALYZE " + table);
+        System.out.printf("Copied %d rows of %s to the replica%n", rows, table);
+      }
+    }
+  }
+
+  private static Map<String, String> parse(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      if (!args[i].startsWith("-")) {
+        throw new IllegalArgumentException("Expected an option, got " + args[i]);
+      }
+      options.put(args[i].substring(1), args[i + 1]);
+    }
+    return options;
+  }
+}
@@ -0,0 +1,138 @@
+package com.example.exptrack.loadtest;
+
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Watches the Hikari pool through the same Micrometer meters actuator exports,
+// sampling the active/pending gauges while the measured run is in progress and
+// diffing the acquire timer and timeout counter around it. The verdict says
+// whether the configured pool size held up under the driven concurrency.
+public class PoolMonitor {
+
+  private static final long SAMPLE_MILLIS = 50;
+
+  private final MeterRegistry registry;
+  private final String pool;
+  private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread t = new Thread(r, "pool-monitor");
+    t.setDaemon(true);
+    return t;
+  });
+
+  private long samples;
+  private long saturatedSamples;
+  private double activeSum;
+  private double peakActive;
+  private double peakPending;
+  private long startAcquireCount;
+  private double startAcquireNanos;
+  private double startTimeouts;
+  private long acquireCount;
+  private double acquireNanos;
+  private double maxAcquireNanos;
+  private double timeouts;
+
+  public PoolMonitor(MeterRegistry registry, String pool) {
+    this.registry = registry;
+    this.pool = pool;
+  }
+
+  public void start() {
+    Timer acquire = acquireTimer();
+    startAcquireCount = acquire.count();
+    startAcquireNanos = acquire.totalTime(TimeUnit.NANOSECONDS);
+    startTimeouts = timeoutCounter().count();
+    sampler.scheduleAtFixedRate(this::sample, 0, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  public void stop() throws InterruptedException {
+    sampler.shutdown();
+    sampler.awaitTermination(1, TimeUnit.SECONDS);
+    Timer acquire = acquireTimer();
+    acquireCount = acquire.count() - startAcquireCount;
+    acquireNanos = acquire.totalTime(TimeUnit.NANOSECONDS) - startAcquireNanos;
+    maxAcquireNanos = acquire.max(TimeUnit.NANOSECONDS);
+    timeouts = timeoutCounter().count() - startTimeouts;
+  }
+
+  private synchronized void sample() {
+    double active = gauge("hikaricp.connections.active");
+    double pending = gauge("hikaricp.connections.pending");
+    samples++;
+    activeSum += active;
+    peakActive = Math.max(peakActive, active);
+    peakPending = Math.max(peakPending, pending);
+    if (pending > 0) {
+      saturatedSamples++;
+    }
+  }
+
+  public synchronized String verdict() {
+    double max = gauge("hikaricp.connections.max");
+    if (timeouts > 0) {
+      return "undersized: requests timed out waiting for a connection";
+    }
+    if (samples > 0 && saturatedSamples > samples / 10) {
+      return "undersized: requests queued for a connection in more than 10% of samples";
+    }
+    if (peakActive < max / 2) {
+      return "oversized: peak use stayed below half of the pool";
+    }
+    return "ok";
+  }
+
+  public synchronized String toTable() {
+    double max = gauge("hikaricp.connections.max");
+    return String.format(Locale.ROOT,
+        "Connection pool %s: max %.0f, peak active %.0f, mean active %.1f, peak pending %.0f, "
+            + "saturated %.1f%% of samples%n"
+            + "  acquire: %d, mean %.3f ms, max %.3f ms, timeouts %.0f -> %s%n",
+        pool, max, peakActive, meanActive(), peakPending, saturatedPercent(),
+        acquireCount, meanAcquireMillis(), maxAcquireNanos / 1e6, timeouts, verdict());
+  }
+
+  // Spliced into LatencyStats' JSON under the pool's name
+  public synchronized String toJson() {
+    return String.format(Locale.ROOT,
+        "{\"maxSize\": %.0f, \"peakActive\": %.0f, \"meanActive\": %.2f, \"peakPending\": %.0f, "
+            + "\"saturatedPercent\": %.2f, \"acquireCount\": %d, \"meanAcquireMs\": %.3f, \"maxAcquireMs\": %.3f, "
+            + "\"timeouts\": %.0f, \"verdict\": \"%s\"}",
+        gauge("hikaricp.connections.max"), peakActive, meanActive(), peakPending, saturatedPercent(),
+        acquireCount, meanAcquireMillis(), maxAcquireNanos / 1e6, timeouts, verdict());
+  }
+
+  private double meanActive() {
+    return samples > 0 ? activeSum / samples : 0.0;
+  }
+
+  private double saturatedPercent() {
+    return samples > 0 ? 100.0 * saturatedSamples / samples : 0.0;
+  }
+
+  private double meanAcquireMillis() {
+    return acquireCount > 0 ? acquireNanos / acquireCount / 1e6 : 0.0;
+  }
+
+  private double gauge(String name) {
+    Gauge gauge = registry.find(name).tag("pool", pool).gauge();
+    if (gauge == null) {
+      throw new IllegalStateException("Meter " + name + " is not registered; is the pool instrumented?");
+    }
+    return gauge.value();
+  }
+
+  private Timer acquireTimer() {
+    return registry.get("hikaricp.connections.acquire").tag("pool", pool).timer();
+  }
+
+  private Counter timeoutCounter() {
+    return registry.get("hikaricp.connections.timeout").tag("pool", pool).counter();
+  }
+}
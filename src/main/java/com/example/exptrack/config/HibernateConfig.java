@@ -0,0 +1,20 @@
+package com.example.exptrack.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.exptrack.utils.EntityLoadCounter;
+import com.example.exptrack.utils.SqlStatementCounter;
+
+@Configuration
+public class HibernateConfig {
+
+  @Bean
+  public HibernatePropertiesCustomizer entityLoadCounterCustomizer() {
+    return properties -> {
+      properties.put("hibernate.session_factory.interceptor", new EntityLoadCounter());
+      properties.put("hibernate.session_factory.statement_inspector", new SqlStatementCounter());
+    };
+  }
+}
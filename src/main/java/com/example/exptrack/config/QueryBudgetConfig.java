@@ -0,0 +1,22 @@
+package com.example.exptrack.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.exptrack.utils.QueryBudgetAdvice;
+
+@Configuration
+@Profile("!prod")
+public class QueryBudgetConfig implements WebMvcConfigurer {
+
+  @Autowired
+  private QueryBudgetAdvice queryBudgetAdvice;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(queryBudgetAdvice);
+  }
+}
@@ -0,0 +1,90 @@
+package com.example.exptrack.config;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Optional read replica, enabled by spring.datasource.replica.url. Connections for
+// read-only transactions (@Transactional(readOnly = true)) come from a replica pool,
+// everything else from the primary. Both pools take the spring.datasource.hikari.*
+// settings. The lazy proxy defers fetching the physical connection until the first
+// statement, when the transaction's read-only flag is known, and Hibernate hands the
+// connection back after every transaction so each one is routed on its own.
+@Configuration
+@ConditionalOnProperty("spring.datasource.replica.url")
+public class ReadReplicaConfig {
+
+  private static final String PRIMARY = "primary";
+  private static final String REPLICA = "replica";
+
+  @Bean
+  public HikariDataSource primaryDataSource(DataSourceProperties properties, Environment environment) {
+    return pool(properties, environment, properties.determineUrl(), properties.determineUsername(),
+        properties.determinePassword(), false);
+  }
+
+  @Bean
+  public HikariDataSource replicaDataSource(DataSourceProperties properties, Environment environment,
+      @Value("${spring.datasource.replica.url}") String url,
+      @Value("${spring.datasource.replica.username:${spring.datasource.username}}") String username,
+      @Value("${spring.datasource.replica.password:${spring.datasource.password}}") String password) {
+    return pool(properties, environment, url, username, password, true);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+      @Qualifier("replicaDataSource") DataSource replica) {
+    AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+      @Override
+      protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? REPLICA : PRIMARY;
+      }
+    };
+    routing.setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+    routing.setDefaultTargetDataSource(primary);
+    routing.afterPropertiesSet();
+    return new LazyConnectionDataSourceProxy(routing);
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer releaseConnectionAfterTransactionCustomizer() {
+    return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+        PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+  }
+
+  private static HikariDataSource pool(DataSourceProperties properties, Environment environment, String url,
+      String username, String password, boolean replica) {
+    HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+        .type(HikariDataSource.class)
+        .url(url)
+        .username(username)
+        .password(password)
+        .build();
+    Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+    if (replica) {
+      dataSource.setPoolName((dataSource.getPoolName() != null ? dataSource.getPoolName() : "exptrack") + "-replica");
+      dataSource.setReadOnly(true);
+    }
+    return dataSource;
+  }
+}
@@ -17,6 +17,9 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfigurationSource;
 
 import com.example.exptrack.utils.JwtAuthFilter;
+import com.example.exptrack.utils.ManagementPortMatcher;
+
+import jakarta.servlet.DispatcherType;
 
 @Configuration
 @EnableWebSecurity
@@ -29,6 +32,8 @@ public class SecurityConfig {
   private JwtAuthFilter jwtAuthFilter;
   @Autowired
   private UserDetailsService userDetailsService;
+  @Autowired
+  private ManagementPortMatcher managementPort;
 
   // Constructor injection of the CORS configuration
   public SecurityConfig(CorsConfigurationSource corsConfigurationSource) {
@@ -52,10 +57,16 @@ public class SecurityConfig {
         .csrf(csrf -> csrf.disable()) // Disable CSRF for API endpoints
         .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .authorizeHttpRequests(authz -> authz
+            // Async dispatches (SSE, streamed bodies) were already authorized on the original request
+            .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
             .requestMatchers("/auth/login", "/auth/signup", "/auth/refresh").permitAll() // Allow public access to
                                                                                          // auth endpoints
             .requestMatchers("/auth/logout").authenticated()
             .requestMatchers("/api/public/**").permitAll() // Allow public endpoints
+            // Actuator is only served on the internal management port; the public port
+            // exposes nothing but the health probes
+            .requestMatchers(managementPort).permitAll()
+            .requestMatchers("/livez", "/readyz").permitAll()
             .anyRequest().authenticated() // All other endpoints require authentication
         )
         .userDetailsService(userDetailsService)
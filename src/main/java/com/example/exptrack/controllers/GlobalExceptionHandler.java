@@ -3,13 +3,19 @@ package com.example.exptrack.controllers;
 import java.nio.file.AccessDeniedException;
 import java.util.Collections;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.example.exptrack.utils.QueryBudgetExceededException;
+
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+  private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
   @ExceptionHandler(AccessDeniedException.class)
   public ResponseEntity<?> handleAccessDenied(AccessDeniedException e) {
     // 403 is more appropriate for authorization failures
@@ -20,12 +26,20 @@ public class GlobalExceptionHandler {
   @ExceptionHandler(NullPointerException.class)
   public ResponseEntity<?> handleNullPointer(NullPointerException e) {
     // Log the error for debugging
-    System.err.println("\u001B[31mNullPointerException: " + e + "\u001B[0m");
+    log.error("Unhandled NullPointerException", e);
     // Return 500 for programming errors
     return ResponseEntity.status(500)
         .body(Collections.singletonMap("error", "Internal server error"));
   }
 
+  @ExceptionHandler(QueryBudgetExceededException.class)
+  public ResponseEntity<?> handleQueryBudgetExceeded(QueryBudgetExceededException e) {
+    // Only thrown with query-budget.enforce=true; which budget broke goes to the log only
+    log.error(e.getMessage());
+    return ResponseEntity.status(500)
+        .body(Collections.singletonMap("error", "Internal server error"));
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<?> handleException(Exception e) {
     // Return 500 for unexpected errors
@@ -1,14 +1,24 @@
 package com.example.exptrack.controllers;
 
 import com.example.exptrack.dtos.*;
+import com.example.exptrack.services.BudgetAlertService;
+import com.example.exptrack.services.BudgetService;
 import com.example.exptrack.services.TransactionService;
+import com.example.exptrack.services.TransactionStreamService;
+import com.example.exptrack.utils.FeedWriter;
+import com.example.exptrack.utils.QueryBudget;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -29,6 +39,18 @@ public class TransactionController {
   @Autowired
   private TransactionService transactionService;
 
+  @Autowired
+  private TransactionStreamService transactionStreamService;
+
+  @Autowired
+  private BudgetService budgetService;
+
+  @Autowired
+  private BudgetAlertService budgetAlertService;
+
+  @Autowired
+  private FeedWriter feedWriter;
+
   /* ===================== HELPERS ===================== */
 
   private void verifyUser(Authentication auth, Long requestedUserId) {
@@ -46,6 +68,7 @@ public class TransactionController {
       @ApiResponse(responseCode = "200", description = "List of transactions returned", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionDTO.class))),
       @ApiResponse(responseCode = "403", description = "Access denied")
   })
+  @QueryBudget(statements = 2)
   public ResponseEntity<List<TransactionDTO>> getTransactions(
       @PathVariable Long userId,
       @RequestParam(defaultValue = "month") String timeFrame,
@@ -63,6 +86,7 @@ public class TransactionController {
       @ApiResponse(responseCode = "200", description = "List of recent transactions returned", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionDTO.class))),
       @ApiResponse(responseCode = "403", description = "Access denied")
   })
+  @QueryBudget(statements = 2, entities = 200)
   public ResponseEntity<List<TransactionDTO>> getRecentTransactions(
       @PathVariable Long userId,
       @RequestParam(defaultValue = "5") int limit,
@@ -72,12 +96,66 @@ public class TransactionController {
     return ResponseEntity.ok(transactionService.getRecentTransactions(userId, limit));
   }
 
+  @GetMapping(value = "/transactions/export", produces = { MediaType.APPLICATION_JSON_VALUE,
+      MediaType.APPLICATION_CBOR_VALUE, FeedWriter.SMILE_VALUE, FeedWriter.CSV_VALUE })
+  @Operation(summary = "Export full transaction history", description = "Streams every transaction of the user, newest first, as one array. Send Accept: application/cbor or application/x-jackson-smile for a compact binary encoding; the list endpoints negotiate the same formats. Accept: text/csv streams one row per transaction instead, with UTC timestamps and amounts to the cent.")
+  @ApiResponses({
+      @ApiResponse(responseCode = "200", description = "Transaction history streamed", content = {
+          @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionDTO.class)),
+          @Content(mediaType = "application/cbor"),
+          @Content(mediaType = FeedWriter.SMILE_VALUE),
+          @Content(mediaType = FeedWriter.CSV_VALUE) }),
+      @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  public ResponseEntity<StreamingResponseBody> exportTransactions(
+      @PathVariable Long userId,
+      @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.APPLICATION_JSON_VALUE) String accept,
+      Authentication auth) {
+
+    verifyUser(auth, userId);
+    MediaType mediaType = feedWriter.negotiate(accept);
+    return ResponseEntity.ok()
+        .contentType(mediaType)
+        .body(out -> transactionService.exportTransactions(userId, mediaType, out));
+  }
+
+  @GetMapping("/transactions/sync")
+  @Operation(summary = "Sync transaction changes", description = "Returns transactions created or updated and transactions deleted since the given sync token, with the token for the next call. Without a token, or when the token is too old or the delta too large, fullResync is set: download /transactions/export and sync from the returned token.")
+  @ApiResponses({
+      @ApiResponse(responseCode = "200", description = "Changes since the token returned", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SyncDTO.class))),
+      @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @QueryBudget(statements = 3)
+  public ResponseEntity<SyncDTO> syncTransactions(
+      @PathVariable Long userId,
+      @RequestParam(required = false) String token,
+      Authentication auth) {
+
+    verifyUser(auth, userId);
+    return ResponseEntity.ok(transactionService.syncTransactions(userId, token));
+  }
+
+  @GetMapping(value = "/transactions/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @Operation(summary = "Stream transaction changes", description = "Server-Sent Events stream pushing a 'transaction' event after every committed create, update or delete, with the changed transaction and the resulting expense/revenue total deltas.")
+  @ApiResponses({
+      @ApiResponse(responseCode = "200", description = "Event stream opened", content = @Content(mediaType = "text/event-stream", schema = @Schema(implementation = TransactionEventDTO.class))),
+      @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  public SseEmitter streamTransactions(
+      @PathVariable Long userId,
+      Authentication auth) {
+
+    verifyUser(auth, userId);
+    return transactionStreamService.subscribe(userId);
+  }
+
   @GetMapping("/transactions/summary")
   @Operation(summary = "Get transaction summary", description = "Returns a summary of transactions for a user over a given timeframe.")
   @ApiResponses({
       @ApiResponse(responseCode = "200", description = "Transaction summary returned", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionSummaryDTO.class))),
       @ApiResponse(responseCode = "403", description = "Access denied")
   })
+  @QueryBudget(statements = 4, entities = 0)
   public ResponseEntity<TransactionSummaryDTO> getTransactionSummary(
       @PathVariable Long userId,
       @RequestParam(defaultValue = "month") String timeFrame,
@@ -93,6 +171,7 @@ public class TransactionController {
       @ApiResponse(responseCode = "200", description = "Category summary returned", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CategorySummaryDTO.class))),
       @ApiResponse(responseCode = "403", description = "Access denied")
   })
+  @QueryBudget(statements = 2, entities = 0)
   public ResponseEntity<List<CategorySummaryDTO>> getCategorySummary(
       @PathVariable Long userId,
       @RequestParam(defaultValue = "month") String timeFrame,
@@ -108,7 +187,8 @@ public class TransactionController {
       @ApiResponse(responseCode = "200", description = "Category stats returned", content = @Content(mediaType = "application/json")),
       @ApiResponse(responseCode = "403", description = "Access denied")
   })
-  public ResponseEntity<Map<String, Object>> getCategoryStats(
+  @QueryBudget(statements = 2, entities = 0)
+  public ResponseEntity<CategoryStatsDTO> getCategoryStats(
       @PathVariable Long userId,
       @RequestParam(defaultValue = "month") String timeFrame,
       Authentication auth) {
@@ -214,18 +294,23 @@ public class TransactionController {
   }
 
   @GetMapping("/transactions/analysis/trend")
-  @Operation(summary = "Trend analysis", description = "Returns trend analysis of user's transactions over a given timeframe.")
+  @Operation(summary = "Trend analysis", description = "Returns the expense or revenue series bucketed monthly, quarterly or yearly, optionally for a single category/source and between start and end dates (defaults: first transaction to today).")
   @ApiResponses({
       @ApiResponse(responseCode = "200", description = "Trend analysis returned"),
       @ApiResponse(responseCode = "403", description = "Access denied")
   })
+  @QueryBudget(statements = 2, entities = 0)
   public ResponseEntity<List<TrendAnalysisDTO>> getTrendAnalysis(
       @PathVariable Long userId,
       @RequestParam(defaultValue = "monthly") String timeFrame,
+      @RequestParam(defaultValue = "expense") String type,
+      @RequestParam(required = false) String category,
+      @RequestParam(required = false) String startDate,
+      @RequestParam(required = false) String endDate,
       Authentication auth) {
 
     verifyUser(auth, userId);
-    return ResponseEntity.ok(transactionService.getTrendAnalysis(userId, timeFrame));
+    return ResponseEntity.ok(transactionService.getTrendAnalysis(userId, timeFrame, type, category, startDate, endDate));
   }
 
   @GetMapping("/transactions/reports/expense")
@@ -261,12 +346,12 @@ public class TransactionController {
   }
 
   @PostMapping("/transactions/reports/generate")
-  @Operation(summary = "Generate report", description = "Generates a PDF or Excel report based on the request body parameters.")
+  @Operation(summary = "Generate report", description = "Generates a report in the requested format: pdf (default), xlsx, csv, html, markdown or json.")
   @ApiResponses({
       @ApiResponse(responseCode = "200", description = "Report generated"),
       @ApiResponse(responseCode = "403", description = "Access denied")
   })
-  public ResponseEntity<byte[]> generateReport(
+  public ResponseEntity<Resource> generateReport(
       @PathVariable Long userId,
       @RequestBody ReportRequestDTO reportRequest,
       Authentication auth) {
@@ -275,13 +360,29 @@ public class TransactionController {
     return transactionService.generateReport(userId, reportRequest);
   }
 
+  @PostMapping("/transactions/reports/bundle")
+  @Operation(summary = "Generate report bundle", description = "Renders one report in several formats (pdf, csv, json, xlsx, html, markdown; pdf, csv and json by default) from a single data query and streams them as a zip. CSV comes as one file per report table plus a summary file.")
+  @ApiResponses({
+      @ApiResponse(responseCode = "200", description = "Report bundle streamed", content = @Content(mediaType = "application/zip")),
+      @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  public ResponseEntity<StreamingResponseBody> generateReportBundle(
+      @PathVariable Long userId,
+      @RequestBody ReportBundleRequestDTO bundleRequest,
+      Authentication auth) {
+
+    verifyUser(auth, userId);
+    return transactionService.generateReportBundle(userId, bundleRequest);
+  }
+
   @GetMapping("/transactions/analysis/budget-vs-actual")
   @Operation(summary = "Budget vs actual analysis", description = "Returns a comparison of budgeted amounts versus actual spending for a user.")
   @ApiResponses({
       @ApiResponse(responseCode = "200", description = "Budget vs actual returned"),
       @ApiResponse(responseCode = "403", description = "Access denied")
   })
-  public ResponseEntity<Map<String, Object>> getBudgetVsActual(
+  @QueryBudget(statements = 3, entities = 500)
+  public ResponseEntity<BudgetVsActualDTO> getBudgetVsActual(
       @PathVariable Long userId,
       @RequestParam(defaultValue = "month") String timeFrame,
       Authentication auth) {
@@ -289,4 +390,85 @@ public class TransactionController {
     verifyUser(auth, userId);
     return ResponseEntity.ok(transactionService.getBudgetVsActual(userId, timeFrame));
   }
+
+  /* ===================== BUDGETS ===================== */
+
+  @GetMapping("/budgets")
+  @Operation(summary = "Get budgets", description = "Lists the user's monthly budgets per expense category.")
+  @ApiResponses({
+      @ApiResponse(responseCode = "200", description = "List of budgets returned", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BudgetDTO.class))),
+      @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @QueryBudget(statements = 1, entities = 500)
+  public ResponseEntity<List<BudgetDTO>> getBudgets(
+      @PathVariable Long userId,
+      Authentication auth) {
+
+    verifyUser(auth, userId);
+    return ResponseEntity.ok(budgetService.getBudgets(userId));
+  }
+
+  @PostMapping("/budgets")
+  @Operation(summary = "Create a budget", description = "Creates a monthly budget for an expense category. One budget per category.")
+  @ApiResponses({
+      @ApiResponse(responseCode = "201", description = "Budget created", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BudgetDTO.class))),
+      @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  public ResponseEntity<BudgetDTO> createBudget(
+      @PathVariable Long userId,
+      @RequestBody BudgetDTO budgetDTO,
+      Authentication auth) {
+
+    verifyUser(auth, userId);
+    return ResponseEntity.status(HttpStatus.CREATED)
+        .body(budgetService.createBudget(userId, budgetDTO));
+  }
+
+  @PutMapping("/budgets/{budgetId}")
+  @Operation(summary = "Update a budget", description = "Updates the category and/or monthly amount of a budget.")
+  @ApiResponses({
+      @ApiResponse(responseCode = "200", description = "Budget updated", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BudgetDTO.class))),
+      @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  public ResponseEntity<BudgetDTO> updateBudget(
+      @PathVariable Long userId,
+      @PathVariable Long budgetId,
+      @RequestBody BudgetDTO budgetDTO,
+      Authentication auth) {
+
+    verifyUser(auth, userId);
+    return ResponseEntity.ok(budgetService.updateBudget(userId, budgetId, budgetDTO));
+  }
+
+  @DeleteMapping("/budgets/{budgetId}")
+  @Operation(summary = "Delete a budget", description = "Deletes a budget by its ID.")
+  @ApiResponses({
+      @ApiResponse(responseCode = "204", description = "Budget deleted"),
+      @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  public ResponseEntity<Void> deleteBudget(
+      @PathVariable Long userId,
+      @PathVariable Long budgetId,
+      Authentication auth) {
+
+    verifyUser(auth, userId);
+    budgetService.deleteBudget(userId, budgetId);
+    return ResponseEntity.noContent().build();
+  }
+
+  @GetMapping("/alerts")
+  @Operation(summary = "Get budget alerts", description = "Lists the most recent alerts raised when monthly spend in a category crossed 80% or 100% of its budget.")
+  @ApiResponses({
+      @ApiResponse(responseCode = "200", description = "List of alerts returned", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BudgetAlertDTO.class))),
+      @ApiResponse(responseCode = "403", description = "Access denied")
+  })
+  @QueryBudget(statements = 1, entities = 500)
+  public ResponseEntity<List<BudgetAlertDTO>> getAlerts(
+      @PathVariable Long userId,
+      @RequestParam(defaultValue = "50") int limit,
+      Authentication auth) {
+
+    verifyUser(auth, userId);
+    return ResponseEntity.ok(budgetAlertService.getAlerts(userId, limit));
+  }
 }
@@ -0,0 +1,13 @@
+package com.example.exptrack.dtos;
+
+import java.util.Date;
+
+public record BudgetAlertDTO(
+    Long id,
+    String category,
+    String period, // "yyyy-MM"
+    Integer threshold, // Percent of budget crossed
+    Double budget,
+    Double spent,
+    Date createdAt) {
+}
@@ -0,0 +1,7 @@
+package com.example.exptrack.dtos;
+
+public record BudgetDTO(
+    Long id,
+    String category,
+    Double amount) { // Monthly limit
+}
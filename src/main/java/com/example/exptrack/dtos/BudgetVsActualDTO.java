@@ -0,0 +1,24 @@
+package com.example.exptrack.dtos;
+
+import java.util.List;
+
+public record BudgetVsActualDTO(
+    List<CategoryVariance> categories,
+    Variance total,
+    String timeFrame) {
+
+  public record CategoryVariance(
+      String category,
+      Double budget,
+      Double actual,
+      Double variance,
+      Double variancePercent) {
+  }
+
+  public record Variance(
+      Double budget,
+      Double actual,
+      Double variance,
+      Double variancePercent) {
+  }
+}
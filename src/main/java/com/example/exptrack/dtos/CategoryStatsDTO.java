@@ -0,0 +1,27 @@
+package com.example.exptrack.dtos;
+
+import java.util.List;
+
+public record CategoryStatsDTO(
+    List<CategoryDetail> expenseCategories,
+    List<CategoryDetail> revenueCategories,
+    String timeFrame,
+    Summary summary) {
+
+  public record CategoryDetail(
+      String category,
+      String type,
+      Double totalAmount,
+      Long transactionCount,
+      Double averageAmount,
+      Double percentage) {
+  }
+
+  public record Summary(
+      Double totalExpenses,
+      Double totalRevenue,
+      Double averageTransaction,
+      String mostSpentCategory,
+      String mostRevenueCategory) {
+  }
+}
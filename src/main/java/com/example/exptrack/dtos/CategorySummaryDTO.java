@@ -5,6 +5,7 @@ public class CategorySummaryDTO {
   private Double amount;
   private String type; // "expense" or "revenue"
   private Double percentage;
+  private Long count; // Number of transactions, when the query provides it
 
   public CategorySummaryDTO() {
   }
@@ -17,6 +18,12 @@ public class CategorySummaryDTO {
     this.percentage = percentage;
   }
 
+  // Constructor for JPQL queries that also count the grouped transactions
+  public CategorySummaryDTO(String name, Double amount, String type, Double percentage, Long count) {
+    this(name, amount, type, percentage);
+    this.count = count;
+  }
+
   public String getName() {
     return name;
   }
@@ -48,4 +55,12 @@ public class CategorySummaryDTO {
   public void setPercentage(Double percentage) {
     this.percentage = percentage;
   }
+
+  public Long getCount() {
+    return count;
+  }
+
+  public void setCount(Long count) {
+    this.count = count;
+  }
 }
@@ -0,0 +1,12 @@
+package com.example.exptrack.dtos;
+
+// Projection for native GROUP BY period queries
+public interface PeriodTotalDTO {
+  String getPeriod(); // "yyyy-MM"
+
+  String getName(); // Category for expenses, Source for revenues
+
+  Double getTotal();
+
+  Long getCount();
+}
@@ -0,0 +1,10 @@
+package com.example.exptrack.dtos;
+
+import java.util.List;
+
+public record ReportBundleRequestDTO(
+    String type,
+    String startDate,
+    String endDate,
+    List<String> formats) {
+}
@@ -0,0 +1,19 @@
+package com.example.exptrack.dtos;
+
+import java.util.Date;
+import java.util.List;
+
+// Delta sync response: transactions created or updated and transactions deleted since
+// the client's sync token, plus the token to send next time. Deltas overlap a little
+// between calls, so clients upsert changes by (type, id) and ignore deletions of rows
+// they do not have. When fullResync is set the lists are empty and the client drops
+// its local copy, downloads /transactions/export and continues syncing from syncToken.
+public record SyncDTO(
+    List<TransactionDTO> changes,
+    List<Deletion> deletions,
+    String syncToken,
+    boolean fullResync) {
+
+  public record Deletion(Long id, String type, Date deletedAt) {
+  }
+}
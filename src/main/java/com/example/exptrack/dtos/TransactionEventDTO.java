@@ -0,0 +1,9 @@
+package com.example.exptrack.dtos;
+
+// Payload pushed on the transaction SSE stream
+public record TransactionEventDTO(
+    String action, // "created", "updated" or "deleted"
+    TransactionDTO transaction,
+    Double expenseDelta,
+    Double revenueDelta) {
+}
@@ -0,0 +1,14 @@
+package com.example.exptrack.dtos;
+
+import java.util.Date;
+
+// Column projection of an expense or revenue row, selected straight into the record
+// so list and report queries never hydrate entities. name is the category of an
+// expense or the source of a revenue.
+public record TransactionRowDTO(
+    Long id,
+    Double amount,
+    String name,
+    Date creationDate,
+    Date lastModified) {
+}
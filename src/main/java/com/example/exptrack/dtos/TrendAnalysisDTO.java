@@ -3,6 +3,7 @@ package com.example.exptrack.dtos;
 // TrendAnalysisDTO.java
 public record TrendAnalysisDTO(
     String period,
+    String type, // "expense" or "revenue"
     Double totalAmount,
     Double percentageChange,
     String trend,
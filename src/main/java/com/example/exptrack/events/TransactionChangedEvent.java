@@ -0,0 +1,37 @@
+package com.example.exptrack.events;
+
+import com.example.exptrack.dtos.TransactionDTO;
+
+// Published by TransactionService on every expense/revenue write.
+// transaction is the state after the write (or the removed row for "deleted"),
+// previous is the state before an update and null otherwise.
+public record TransactionChangedEvent(
+    Long userId,
+    String action, // "created", "updated" or "deleted"
+    TransactionDTO transaction,
+    TransactionDTO previous) {
+
+  public static TransactionChangedEvent created(Long userId, TransactionDTO transaction) {
+    return new TransactionChangedEvent(userId, "created", transaction, null);
+  }
+
+  public static TransactionChangedEvent updated(Long userId, TransactionDTO transaction, TransactionDTO previous) {
+    return new TransactionChangedEvent(userId, "updated", transaction, previous);
+  }
+
+  public static TransactionChangedEvent deleted(Long userId, TransactionDTO transaction) {
+    return new TransactionChangedEvent(userId, "deleted", transaction, null);
+  }
+
+  // Signed change this event applies to the total of the given type ("expense" or "revenue")
+  public double amountDelta(String type) {
+    double delta = 0.0;
+    if (transaction != null && type.equals(transaction.getType()) && transaction.getAmount() != null) {
+      delta += "deleted".equals(action) ? -transaction.getAmount() : transaction.getAmount();
+    }
+    if (previous != null && type.equals(previous.getType()) && previous.getAmount() != null) {
+      delta -= previous.getAmount();
+    }
+    return delta;
+  }
+}
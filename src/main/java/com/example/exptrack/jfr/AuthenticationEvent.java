@@ -0,0 +1,25 @@
+package com.example.exptrack.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Authentication work done by JwtAuthFilter for one request, excluding the rest of the chain
+@Name("com.example.exptrack.Authentication")
+@Label("Authentication")
+@Category({ "ExpTrack", "Security" })
+@Description("Cookie/JWT authentication of a request in JwtAuthFilter")
+@StackTrace(false)
+public class AuthenticationEvent extends jdk.jfr.Event {
+
+  @Label("Path")
+  public String path;
+
+  @Label("Outcome")
+  public String outcome;
+
+  @Label("User Id")
+  public long userId;
+}
@@ -0,0 +1,28 @@
+package com.example.exptrack.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Loading and shaping report data (TransactionService.prepareReportData)
+@Name("com.example.exptrack.ReportDataPrepared")
+@Label("Report Data Prepared")
+@Category({ "ExpTrack", "Reports" })
+@Description("Loading and aggregating the data behind an html, markdown or pdf report")
+@StackTrace(false)
+public class ReportDataPreparedEvent extends jdk.jfr.Event {
+
+  @Label("User Id")
+  public long userId;
+
+  @Label("Report Type")
+  public String reportType;
+
+  @Label("Tables")
+  public int tables;
+
+  @Label("Rows")
+  public int rows;
+}
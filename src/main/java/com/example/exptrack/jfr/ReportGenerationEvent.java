@@ -0,0 +1,50 @@
+package com.example.exptrack.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// One report request end to end (TransactionService.generateReport), split into
+// data preparation and rendering
+@Name("com.example.exptrack.ReportGeneration")
+@Label("Report Generation")
+@Category({ "ExpTrack", "Reports" })
+@Description("A report request, with data preparation and rendering timings")
+@StackTrace(false)
+public class ReportGenerationEvent extends jdk.jfr.Event {
+
+  @Label("User Id")
+  public long userId;
+
+  @Label("Report Type")
+  public String reportType;
+
+  @Label("Format")
+  public String format;
+
+  @Label("Rows")
+  public int rows;
+
+  @Label("Bytes")
+  @DataAmount
+  public long bytes;
+
+  @Label("Prepare Time")
+  @Timespan
+  public long prepareTime;
+
+  @Label("Render Time")
+  @Timespan
+  public long renderTime;
+
+  @Label("Cache")
+  @Description("memory or disk when served from the rendered-report cache, miss, prewarm when rendered into it ahead of demand, or off for uncached formats")
+  public String cache;
+
+  @Label("Succeeded")
+  public boolean succeeded;
+}
@@ -0,0 +1,75 @@
+package com.example.exptrack.jfr;
+
+import java.util.List;
+import java.util.Map;
+
+import com.example.exptrack.utils.ReportRows;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// A single ReportGeneratorService renderer call
+@Name("com.example.exptrack.ReportRender")
+@Label("Report Render")
+@Category({ "ExpTrack", "Reports" })
+@Description("Rendering prepared report data into one output format")
+@StackTrace(false)
+public class ReportRenderEvent extends jdk.jfr.Event {
+
+  @Label("Format")
+  public String format;
+
+  @Label("Rows")
+  public int rows;
+
+  @Label("Bytes")
+  @DataAmount
+  public long bytes;
+
+  public static ReportRenderEvent start(String format) {
+    ReportRenderEvent event = new ReportRenderEvent();
+    event.format = format;
+    event.begin();
+    return event;
+  }
+
+  // Fields are only filled in when the event passes its threshold
+  public void finish(Object reportData, long bytes) {
+    end();
+    if (shouldCommit()) {
+      this.rows = rowCount(reportData);
+      this.bytes = bytes;
+      commit();
+    }
+  }
+
+  // Rows in prepared report data: list rows, table rows, or a "data" list. Streamed
+  // rows are counted from their prepared count, never read again
+  public static int rowCount(Object reportData) {
+    if (reportData instanceof List<?> list) {
+      return list.size();
+    }
+    if (reportData instanceof ReportRows streamed) {
+      return (int) Math.min(streamed.count(), Integer.MAX_VALUE);
+    }
+    if (reportData instanceof Map<?, ?> map) {
+      if (map.get("tables") instanceof List<?> tables) {
+        int rows = 0;
+        for (Object table : tables) {
+          if (table instanceof Map<?, ?> t) {
+            rows += rowCount(t.get("rows"));
+          }
+        }
+        return rows;
+      }
+      if (map.get("data") instanceof List<?> data) {
+        return data.size();
+      }
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,76 @@
+package com.example.exptrack.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// Monthly spending limit for one expense category
+@Entity
+@Table(name = "budgets", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "category" }))
+public class Budget {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @JoinColumn(name = "user_id", nullable = false)
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JsonIgnore
+  private User user;
+
+  @Column(name = "category", nullable = false)
+  private String category;
+
+  @Column(name = "amount", nullable = false)
+  private Double amount;
+
+  public Budget() {
+  }
+
+  public Budget(User user, String category, Double amount) {
+    this.user = user;
+    this.category = category;
+    this.amount = amount;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public User getUser() {
+    return user;
+  }
+
+  public void setUser(User user) {
+    this.user = user;
+  }
+
+  public String getCategory() {
+    return category;
+  }
+
+  public void setCategory(String category) {
+    this.category = category;
+  }
+
+  public Double getAmount() {
+    return amount;
+  }
+
+  public void setAmount(Double amount) {
+    this.amount = amount;
+  }
+}
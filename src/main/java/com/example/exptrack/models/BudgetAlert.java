@@ -0,0 +1,79 @@
+package com.example.exptrack.models;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// Raised once per (user, category, month, threshold) when spend crosses a share of the budget
+@Entity
+@Table(name = "alerts", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "category",
+    "period_start", "threshold" }))
+public class BudgetAlert {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Column(name = "category", nullable = false)
+  private String category;
+
+  @Column(name = "period_start", nullable = false)
+  private LocalDate periodStart;
+
+  @Column(name = "threshold", nullable = false)
+  private Integer threshold; // Percent of budget, e.g. 80 or 100
+
+  @Column(name = "budget", nullable = false)
+  private Double budget;
+
+  @Column(name = "spent", nullable = false)
+  private Double spent;
+
+  @Column(name = "created_at", nullable = false)
+  private Date createdAt;
+
+  public BudgetAlert() {
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public String getCategory() {
+    return category;
+  }
+
+  public LocalDate getPeriodStart() {
+    return periodStart;
+  }
+
+  public Integer getThreshold() {
+    return threshold;
+  }
+
+  public Double getBudget() {
+    return budget;
+  }
+
+  public Double getSpent() {
+    return spent;
+  }
+
+  public Date getCreatedAt() {
+    return createdAt;
+  }
+}
@@ -0,0 +1,57 @@
+package com.example.exptrack.models;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// Spend-to-date counter per (user, category, month), maintained on every expense write
+@Entity
+@Table(name = "budget_spend", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "category",
+    "period_start" }))
+public class BudgetSpend {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Column(name = "category", nullable = false)
+  private String category;
+
+  @Column(name = "period_start", nullable = false)
+  private LocalDate periodStart; // First day of the month
+
+  @Column(name = "amount", nullable = false)
+  private Double amount;
+
+  public BudgetSpend() {
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public String getCategory() {
+    return category;
+  }
+
+  public LocalDate getPeriodStart() {
+    return periodStart;
+  }
+
+  public Double getAmount() {
+    return amount;
+  }
+}
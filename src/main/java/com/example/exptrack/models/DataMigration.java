@@ -0,0 +1,34 @@
+package com.example.exptrack.models;
+
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Marks a one-off data migration as applied. The row is inserted in the migration's
+// own transaction, so it also serves as the lock that keeps instances starting
+// together from running the migration twice.
+@Entity
+@Table(name = "data_migrations")
+public class DataMigration {
+
+  @Id
+  @Column(name = "name", nullable = false)
+  private String name;
+
+  @Column(name = "applied_at", nullable = false)
+  private Date appliedAt;
+
+  public DataMigration() {
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Date getAppliedAt() {
+    return appliedAt;
+  }
+}
@@ -7,10 +7,12 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "expenses")
+// (user_id, last_modified) serves delta sync: an up-to-date client costs one index probe
+@Table(name = "expenses", indexes = @Index(name = "idx_expenses_user_modified", columnList = "user_id, last_modified"))
 public class Expense extends Transaction {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
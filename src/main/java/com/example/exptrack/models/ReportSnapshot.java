@@ -0,0 +1,81 @@
+package com.example.exptrack.models;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// Report data for one user, report type and closed month or year, Smile-encoded.
+// data is null while the period is invalidated; version counts the invalidations so
+// a snapshot computed from data read before the latest one is never stored.
+@Entity
+@Table(name = "report_snapshots", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "report_type",
+    "period_start", "period_end" }))
+public class ReportSnapshot {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Column(name = "report_type", nullable = false)
+  private String reportType;
+
+  @Column(name = "period_start", nullable = false)
+  private LocalDate periodStart;
+
+  @Column(name = "period_end", nullable = false)
+  private LocalDate periodEnd;
+
+  @Column(name = "version", nullable = false)
+  private Long version;
+
+  @Column(name = "data")
+  private byte[] data;
+
+  @Column(name = "created_at")
+  private Date createdAt; // When data was computed
+
+  public ReportSnapshot() {
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public String getReportType() {
+    return reportType;
+  }
+
+  public LocalDate getPeriodStart() {
+    return periodStart;
+  }
+
+  public LocalDate getPeriodEnd() {
+    return periodEnd;
+  }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public byte[] getData() {
+    return data;
+  }
+
+  public Date getCreatedAt() {
+    return createdAt;
+  }
+}
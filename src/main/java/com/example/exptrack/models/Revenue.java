@@ -7,10 +7,11 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "revenue")
+@Table(name = "revenue", indexes = @Index(name = "idx_revenue_user_modified", columnList = "user_id, last_modified"))
 public class Revenue extends Transaction {
 
   @Id
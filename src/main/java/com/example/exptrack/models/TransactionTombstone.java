@@ -0,0 +1,74 @@
+package com.example.exptrack.models;
+
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Record of a deleted expense or revenue, kept so delta sync can tell clients to drop
+// their copy. Purged after sync.tombstone-retention-days; older sync tokens get a full resync.
+@Entity
+@Table(name = "transaction_tombstones", indexes = @Index(name = "idx_tombstones_user_deleted", columnList = "user_id, deleted_at"))
+public class TransactionTombstone {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Column(name = "transaction_id", nullable = false)
+  private Long transactionId;
+
+  @Column(name = "type", nullable = false)
+  private String type; // "expense" or "revenue"
+
+  @Column(name = "deleted_at", nullable = false)
+  private Date deletedAt;
+
+  // Creation date of the deleted row, so report versions only see deletions in their
+  // range; null on tombstones written before the column existed
+  @Column(name = "creation_date")
+  private Date creationDate;
+
+  public TransactionTombstone() {
+  }
+
+  public TransactionTombstone(Long userId, Long transactionId, String type, Date deletedAt, Date creationDate) {
+    this.userId = userId;
+    this.transactionId = transactionId;
+    this.type = type;
+    this.deletedAt = deletedAt;
+    this.creationDate = creationDate;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public Long getTransactionId() {
+    return transactionId;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public Date getDeletedAt() {
+    return deletedAt;
+  }
+
+  public Date getCreationDate() {
+    return creationDate;
+  }
+}
@@ -0,0 +1,33 @@
+package com.example.exptrack.repositories;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.exptrack.models.BudgetAlert;
+
+@Repository
+public interface BudgetAlertRepository extends JpaRepository<BudgetAlert, Long> {
+  List<BudgetAlert> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+
+  // Alerts are raised once; re-evaluating an already alerted threshold is a no-op
+  @Modifying
+  @Query(value = "INSERT INTO alerts (user_id, category, period_start, threshold, budget, spent, created_at) " +
+      "VALUES (:userId, :category, :periodStart, :threshold, :budget, :spent, :createdAt) " +
+      "ON CONFLICT (user_id, category, period_start, threshold) DO NOTHING", nativeQuery = true)
+  int insertIfAbsent(
+      @Param("userId") Long userId,
+      @Param("category") String category,
+      @Param("periodStart") LocalDate periodStart,
+      @Param("threshold") Integer threshold,
+      @Param("budget") Double budget,
+      @Param("spent") Double spent,
+      @Param("createdAt") Date createdAt);
+}
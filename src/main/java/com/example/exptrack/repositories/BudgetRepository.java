@@ -0,0 +1,18 @@
+package com.example.exptrack.repositories;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.exptrack.models.Budget;
+
+@Repository
+public interface BudgetRepository extends JpaRepository<Budget, Long> {
+  List<Budget> findByUserIdOrderByCategory(Long userId);
+
+  Optional<Budget> findByIdAndUserId(Long id, Long userId);
+
+  boolean existsByUserIdAndCategory(Long userId, String category);
+}
@@ -0,0 +1,58 @@
+package com.example.exptrack.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.exptrack.dtos.CategorySummaryDTO;
+import com.example.exptrack.models.BudgetSpend;
+
+@Repository
+public interface BudgetSpendRepository extends JpaRepository<BudgetSpend, Long> {
+
+  // Single-statement increment so concurrent writers never lose an update
+  @Modifying
+  @Query(value = "INSERT INTO budget_spend (user_id, category, period_start, amount) " +
+      "VALUES (:userId, :category, :periodStart, :delta) " +
+      "ON CONFLICT (user_id, category, period_start) " +
+      "DO UPDATE SET amount = budget_spend.amount + EXCLUDED.amount", nativeQuery = true)
+  int addSpend(
+      @Param("userId") Long userId,
+      @Param("category") String category,
+      @Param("periodStart") LocalDate periodStart,
+      @Param("delta") Double delta);
+
+  @Query("SELECT new com.example.exptrack.dtos.CategorySummaryDTO(" +
+      "s.category, " +
+      "COALESCE(SUM(s.amount), 0), " +
+      "'expense', " +
+      "0.0) " +
+      "FROM BudgetSpend s " +
+      "WHERE s.userId = :userId " +
+      "AND s.periodStart BETWEEN :fromPeriod AND :toPeriod " +
+      "GROUP BY s.category")
+  List<CategorySummaryDTO> sumSpendByCategory(
+      @Param("userId") Long userId,
+      @Param("fromPeriod") LocalDate fromPeriod,
+      @Param("toPeriod") LocalDate toPeriod);
+
+  @Query("SELECT MIN(s.periodStart) FROM BudgetSpend s WHERE s.userId = :userId")
+  LocalDate findFirstPeriod(@Param("userId") Long userId);
+
+  // Seeds the counters from existing expenses. Counters that exist already were kept
+  // by expense writes and are left as they are
+  @Modifying
+  @Query(value = "INSERT INTO budget_spend (user_id, category, period_start, amount) " +
+      "SELECT e.user_id, COALESCE(e.category, 'Uncategorized'), " +
+      "CAST(date_trunc('month', e.creation_date) AS date), SUM(e.amount) " +
+      "FROM expenses e " +
+      "WHERE e.creation_date IS NOT NULL AND e.amount IS NOT NULL " +
+      "GROUP BY 1, 2, 3 " +
+      "ON CONFLICT (user_id, category, period_start) DO NOTHING", nativeQuery = true)
+  int backfillFromExpenses();
+}
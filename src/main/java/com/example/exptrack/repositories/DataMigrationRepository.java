@@ -0,0 +1,22 @@
+package com.example.exptrack.repositories;
+
+import java.util.Date;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.exptrack.models.DataMigration;
+
+@Repository
+public interface DataMigrationRepository extends JpaRepository<DataMigration, String> {
+
+  // 1 when this transaction claimed the migration, 0 when it was applied already. A
+  // concurrent claim waits for the first to commit or roll back
+  @Modifying
+  @Query(value = "INSERT INTO data_migrations (name, applied_at) VALUES (:name, :appliedAt) " +
+      "ON CONFLICT (name) DO NOTHING", nativeQuery = true)
+  int claim(@Param("name") String name, @Param("appliedAt") Date appliedAt);
+}
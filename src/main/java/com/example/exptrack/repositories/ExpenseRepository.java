@@ -3,12 +3,15 @@ package com.example.exptrack.repositories;
 import java.util.Date;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.exptrack.dtos.CategorySummaryDTO;
+import com.example.exptrack.dtos.PeriodTotalDTO;
+import com.example.exptrack.dtos.TransactionRowDTO;
 import com.example.exptrack.models.Expense;
 import com.example.exptrack.models.User;
 
@@ -40,7 +43,8 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
       "e.category, " +
       "COALESCE(SUM(e.amount), 0), " +
       "'expense', " +
-      "0.0) " +
+      "0.0, " +
+      "COUNT(e)) " +
       "FROM Expense e " +
       "WHERE e.user.id = :userId " +
       "AND e.creationDate BETWEEN :startDate AND :endDate " +
@@ -49,4 +53,89 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
       @Param("userId") Long userId,
       @Param("startDate") Date startDate,
       @Param("endDate") Date endDate);
+
+  @Query(value = "SELECT to_char(date_trunc('month', e.creation_date), 'YYYY-MM') AS period, " +
+      "e.category AS name, " +
+      "SUM(e.amount) AS total, " +
+      "COUNT(*) AS count " +
+      "FROM expenses e " +
+      "WHERE e.user_id = :userId " +
+      "GROUP BY 1, 2", nativeQuery = true)
+  List<PeriodTotalDTO> sumExpenseByMonthAndCategory(@Param("userId") Long userId);
+
+  @Query(value = "SELECT to_char(date_trunc('month', e.creation_date), 'YYYY-MM') AS period, " +
+      "e.category AS name, " +
+      "SUM(e.amount) AS total, " +
+      "COUNT(*) AS count " +
+      "FROM expenses e " +
+      "WHERE e.user_id = :userId " +
+      "AND e.creation_date BETWEEN :startDate AND :endDate " +
+      "GROUP BY 1, 2", nativeQuery = true)
+  List<PeriodTotalDTO> sumExpenseByMonthAndCategoryBetween(
+      @Param("userId") Long userId,
+      @Param("startDate") Date startDate,
+      @Param("endDate") Date endDate);
+
+  // Column projections for list and report endpoints: one record per row, no managed
+  // entities, user proxies or persistence-context snapshots
+  @Query("SELECT new com.example.exptrack.dtos.TransactionRowDTO(" +
+      "e.id, e.amount, e.category, e.creationDate, e.lastModified) " +
+      "FROM Expense e " +
+      "WHERE e.user.id = :userId " +
+      "AND e.creationDate BETWEEN :startDate AND :endDate " +
+      "ORDER BY e.creationDate DESC, e.id DESC")
+  List<TransactionRowDTO> findRowsByUserAndDateRange(
+      @Param("userId") Long userId,
+      @Param("startDate") Date startDate,
+      @Param("endDate") Date endDate,
+      Pageable pageable);
+
+  @Query("SELECT new com.example.exptrack.dtos.TransactionRowDTO(" +
+      "e.id, e.amount, e.category, e.creationDate, e.lastModified) " +
+      "FROM Expense e " +
+      "WHERE e.user.id = :userId " +
+      "ORDER BY e.creationDate DESC, e.id DESC")
+  List<TransactionRowDTO> findRecentRowsByUser(@Param("userId") Long userId, Pageable pageable);
+
+  // Keyset page of the history, newest first: the rows after (beforeDate, beforeId)
+  // in findRecentRowsByUser order
+  @Query("SELECT new com.example.exptrack.dtos.TransactionRowDTO(" +
+      "e.id, e.amount, e.category, e.creationDate, e.lastModified) " +
+      "FROM Expense e " +
+      "WHERE e.user.id = :userId " +
+      "AND (e.creationDate < :beforeDate OR (e.creationDate = :beforeDate AND e.id < :beforeId)) " +
+      "ORDER BY e.creationDate DESC, e.id DESC")
+  List<TransactionRowDTO> findRowsByUserBefore(
+      @Param("userId") Long userId,
+      @Param("beforeDate") Date beforeDate,
+      @Param("beforeId") Long beforeId,
+      Pageable pageable);
+
+  // Keyset page of a date range, newest first: the rows from startDate on that come
+  // after (beforeDate, beforeId) in findRowsByUserAndDateRange order
+  @Query("SELECT new com.example.exptrack.dtos.TransactionRowDTO(" +
+      "e.id, e.amount, e.category, e.creationDate, e.lastModified) " +
+      "FROM Expense e " +
+      "WHERE e.user.id = :userId " +
+      "AND e.creationDate >= :startDate " +
+      "AND (e.creationDate < :beforeDate OR (e.creationDate = :beforeDate AND e.id < :beforeId)) " +
+      "ORDER BY e.creationDate DESC, e.id DESC")
+  List<TransactionRowDTO> findRowsByUserInRangeBefore(
+      @Param("userId") Long userId,
+      @Param("startDate") Date startDate,
+      @Param("beforeDate") Date beforeDate,
+      @Param("beforeId") Long beforeId,
+      Pageable pageable);
+
+  // Rows created or updated since a sync token, oldest change first
+  @Query("SELECT new com.example.exptrack.dtos.TransactionRowDTO(" +
+      "e.id, e.amount, e.category, e.creationDate, e.lastModified) " +
+      "FROM Expense e " +
+      "WHERE e.user.id = :userId " +
+      "AND e.lastModified >= :since " +
+      "ORDER BY e.lastModified, e.id")
+  List<TransactionRowDTO> findRowsModifiedSince(
+      @Param("userId") Long userId,
+      @Param("since") Date since,
+      Pageable pageable);
 }
@@ -0,0 +1,58 @@
+package com.example.exptrack.repositories;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.exptrack.models.ReportSnapshot;
+
+@Repository
+public interface ReportSnapshotRepository extends JpaRepository<ReportSnapshot, Long> {
+  Optional<ReportSnapshot> findByUserIdAndReportTypeAndPeriodStartAndPeriodEnd(
+      Long userId, String reportType, LocalDate periodStart, LocalDate periodEnd);
+
+  // First snapshot of a period; loses to an invalidation that created the row meanwhile
+  @Modifying
+  @Query(value = "INSERT INTO report_snapshots (user_id, report_type, period_start, period_end, version, data, created_at) " +
+      "VALUES (:userId, :reportType, :periodStart, :periodEnd, 0, :data, :createdAt) " +
+      "ON CONFLICT (user_id, report_type, period_start, period_end) DO NOTHING", nativeQuery = true)
+  int insertIfAbsent(
+      @Param("userId") Long userId,
+      @Param("reportType") String reportType,
+      @Param("periodStart") LocalDate periodStart,
+      @Param("periodEnd") LocalDate periodEnd,
+      @Param("data") byte[] data,
+      @Param("createdAt") Date createdAt);
+
+  // Refills an invalidated period, unless it was invalidated again since `version` was read
+  @Modifying
+  @Query(value = "UPDATE report_snapshots SET data = :data, created_at = :createdAt " +
+      "WHERE user_id = :userId AND report_type = :reportType " +
+      "AND period_start = :periodStart AND period_end = :periodEnd " +
+      "AND version = :version AND data IS NULL", nativeQuery = true)
+  int updateIfVersion(
+      @Param("userId") Long userId,
+      @Param("reportType") String reportType,
+      @Param("periodStart") LocalDate periodStart,
+      @Param("periodEnd") LocalDate periodEnd,
+      @Param("version") Long version,
+      @Param("data") byte[] data,
+      @Param("createdAt") Date createdAt);
+
+  @Modifying
+  @Query(value = "INSERT INTO report_snapshots (user_id, report_type, period_start, period_end, version) " +
+      "VALUES (:userId, :reportType, :periodStart, :periodEnd, 1) " +
+      "ON CONFLICT (user_id, report_type, period_start, period_end) " +
+      "DO UPDATE SET version = report_snapshots.version + 1, data = NULL, created_at = NULL", nativeQuery = true)
+  int invalidate(
+      @Param("userId") Long userId,
+      @Param("reportType") String reportType,
+      @Param("periodStart") LocalDate periodStart,
+      @Param("periodEnd") LocalDate periodEnd);
+}
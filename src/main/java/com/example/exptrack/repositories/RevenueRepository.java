@@ -3,12 +3,15 @@ package com.example.exptrack.repositories;
 import java.util.Date;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.exptrack.dtos.CategorySummaryDTO;
+import com.example.exptrack.dtos.PeriodTotalDTO;
+import com.example.exptrack.dtos.TransactionRowDTO;
 import com.example.exptrack.models.Revenue;
 import com.example.exptrack.models.User;
 
@@ -41,7 +44,8 @@ public interface RevenueRepository extends JpaRepository<Revenue, Long> {
       "r.source, " +
       "COALESCE(SUM(r.amount), 0), " +
       "'revenue', " +
-      "0.0) " +
+      "0.0, " +
+      "COUNT(r)) " +
       "FROM Revenue r " +
       "WHERE r.user.id = :userId " +
       "AND r.creationDate BETWEEN :startDate AND :endDate " +
@@ -50,4 +54,89 @@ public interface RevenueRepository extends JpaRepository<Revenue, Long> {
       @Param("userId") Long userId,
       @Param("startDate") Date startDate,
       @Param("endDate") Date endDate);
+
+  @Query(value = "SELECT to_char(date_trunc('month', r.creation_date), 'YYYY-MM') AS period, " +
+      "r.source AS name, " +
+      "SUM(r.amount) AS total, " +
+      "COUNT(*) AS count " +
+      "FROM revenue r " +
+      "WHERE r.user_id = :userId " +
+      "GROUP BY 1, 2", nativeQuery = true)
+  List<PeriodTotalDTO> sumRevenueByMonthAndSource(@Param("userId") Long userId);
+
+  @Query(value = "SELECT to_char(date_trunc('month', r.creation_date), 'YYYY-MM') AS period, " +
+      "r.source AS name, " +
+      "SUM(r.amount) AS total, " +
+      "COUNT(*) AS count " +
+      "FROM revenue r " +
+      "WHERE r.user_id = :userId " +
+      "AND r.creation_date BETWEEN :startDate AND :endDate " +
+      "GROUP BY 1, 2", nativeQuery = true)
+  List<PeriodTotalDTO> sumRevenueByMonthAndSourceBetween(
+      @Param("userId") Long userId,
+      @Param("startDate") Date startDate,
+      @Param("endDate") Date endDate);
+
+  // Column projections for list and report endpoints: one record per row, no managed
+  // entities, user proxies or persistence-context snapshots
+  @Query("SELECT new com.example.exptrack.dtos.TransactionRowDTO(" +
+      "r.id, r.amount, r.source, r.creationDate, r.lastModified) " +
+      "FROM Revenue r " +
+      "WHERE r.user.id = :userId " +
+      "AND r.creationDate BETWEEN :startDate AND :endDate " +
+      "ORDER BY r.creationDate DESC, r.id DESC")
+  List<TransactionRowDTO> findRowsByUserAndDateRange(
+      @Param("userId") Long userId,
+      @Param("startDate") Date startDate,
+      @Param("endDate") Date endDate,
+      Pageable pageable);
+
+  @Query("SELECT new com.example.exptrack.dtos.TransactionRowDTO(" +
+      "r.id, r.amount, r.source, r.creationDate, r.lastModified) " +
+      "FROM Revenue r " +
+      "WHERE r.user.id = :userId " +
+      "ORDER BY r.creationDate DESC, r.id DESC")
+  List<TransactionRowDTO> findRecentRowsByUser(@Param("userId") Long userId, Pageable pageable);
+
+  // Keyset page of the history, newest first: the rows after (beforeDate, beforeId)
+  // in findRecentRowsByUser order
+  @Query("SELECT new com.example.exptrack.dtos.TransactionRowDTO(" +
+      "r.id, r.amount, r.source, r.creationDate, r.lastModified) " +
+      "FROM Revenue r " +
+      "WHERE r.user.id = :userId " +
+      "AND (r.creationDate < :beforeDate OR (r.creationDate = :beforeDate AND r.id < :beforeId)) " +
+      "ORDER BY r.creationDate DESC, r.id DESC")
+  List<TransactionRowDTO> findRowsByUserBefore(
+      @Param("userId") Long userId,
+      @Param("beforeDate") Date beforeDate,
+      @Param("beforeId") Long beforeId,
+      Pageable pageable);
+
+  // Keyset page of a date range, newest first: the rows from startDate on that come
+  // after (beforeDate, beforeId) in findRowsByUserAndDateRange order
+  @Query("SELECT new com.example.exptrack.dtos.TransactionRowDTO(" +
+      "r.id, r.amount, r.source, r.creationDate, r.lastModified) " +
+      "FROM Revenue r " +
+      "WHERE r.user.id = :userId " +
+      "AND r.creationDate >= :startDate " +
+      "AND (r.creationDate < :beforeDate OR (r.creationDate = :beforeDate AND r.id < :beforeId)) " +
+      "ORDER BY r.creationDate DESC, r.id DESC")
+  List<TransactionRowDTO> findRowsByUserInRangeBefore(
+      @Param("userId") Long userId,
+      @Param("startDate") Date startDate,
+      @Param("beforeDate") Date beforeDate,
+      @Param("beforeId") Long beforeId,
+      Pageable pageable);
+
+  // Rows created or updated since a sync token, oldest change first
+  @Query("SELECT new com.example.exptrack.dtos.TransactionRowDTO(" +
+      "r.id, r.amount, r.source, r.creationDate, r.lastModified) " +
+      "FROM Revenue r " +
+      "WHERE r.user.id = :userId " +
+      "AND r.lastModified >= :since " +
+      "ORDER BY r.lastModified, r.id")
+  List<TransactionRowDTO> findRowsModifiedSince(
+      @Param("userId") Long userId,
+      @Param("since") Date since,
+      Pageable pageable);
 }
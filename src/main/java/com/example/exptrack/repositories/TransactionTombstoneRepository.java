@@ -0,0 +1,52 @@
+package com.example.exptrack.repositories;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.exptrack.dtos.SyncDTO;
+import com.example.exptrack.models.TransactionTombstone;
+
+@Repository
+public interface TransactionTombstoneRepository extends JpaRepository<TransactionTombstone, Long> {
+
+  @Query("SELECT new com.example.exptrack.dtos.SyncDTO$Deletion(t.transactionId, t.type, t.deletedAt) " +
+      "FROM TransactionTombstone t " +
+      "WHERE t.userId = :userId " +
+      "AND t.deletedAt >= :since " +
+      "ORDER BY t.deletedAt, t.id")
+  List<SyncDTO.Deletion> findDeletionsSince(
+      @Param("userId") Long userId,
+      @Param("since") Date since,
+      Pageable pageable);
+
+  @Modifying
+  @Query("DELETE FROM TransactionTombstone t WHERE t.deletedAt < :before")
+  int deleteOlderThan(@Param("before") Date before);
+
+  // Changes whenever a transaction created in [start, end) is created, updated or
+  // deleted, or moved into or out of the range; writes outside it leave the version
+  // alone. The counts also catch a write stamped earlier than the latest by a skewed
+  // clock. Tombstones without a creation date may be in any range and always count
+  @Query(value = "SELECT CONCAT(" +
+      "(SELECT COUNT(*) FROM expenses WHERE user_id = :userId " +
+      "AND creation_date >= :start AND creation_date < :end), '/', " +
+      "(SELECT MAX(last_modified) FROM expenses WHERE user_id = :userId " +
+      "AND creation_date >= :start AND creation_date < :end), '/', " +
+      "(SELECT COUNT(*) FROM revenue WHERE user_id = :userId " +
+      "AND creation_date >= :start AND creation_date < :end), '/', " +
+      "(SELECT MAX(last_modified) FROM revenue WHERE user_id = :userId " +
+      "AND creation_date >= :start AND creation_date < :end), '/', " +
+      "(SELECT MAX(deleted_at) FROM transaction_tombstones WHERE user_id = :userId " +
+      "AND (creation_date IS NULL OR (creation_date >= :start AND creation_date < :end))))", nativeQuery = true)
+  String findDataVersion(
+      @Param("userId") Long userId,
+      @Param("start") Date start,
+      @Param("end") Date end);
+}
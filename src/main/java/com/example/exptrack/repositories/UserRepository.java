@@ -1,8 +1,12 @@
 package com.example.exptrack.repositories;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.exptrack.models.User;
@@ -10,4 +14,11 @@ import com.example.exptrack.models.User;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
   public Optional<User> findByEmail(String email);
+
+  // Users with a transaction dated in [start, end), in id order; one pass over the period
+  @Query(value = "SELECT user_id FROM expenses WHERE creation_date >= :start AND creation_date < :end " +
+      "UNION " +
+      "SELECT user_id FROM revenue WHERE creation_date >= :start AND creation_date < :end " +
+      "ORDER BY user_id", nativeQuery = true)
+  List<Long> findActiveUserIds(@Param("start") Date start, @Param("end") Date end);
 }
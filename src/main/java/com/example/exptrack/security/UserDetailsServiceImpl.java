@@ -4,6 +4,7 @@ package com.example.exptrack.security;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.exptrack.repositories.UserRepository;
 
@@ -16,7 +17,10 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     this.userRepository = userRepository;
   }
 
+  // Read-write on purpose: Spring Data would otherwise run the lookup read-only,
+  // which routes to the replica and can miss a user who registered a moment ago
   @Override
+  @Transactional
   public UserDetailsImpl loadUserByUsername(String email) throws UsernameNotFoundException {
     return userRepository.findByEmail(email)
         .map(UserDetailsImpl::new)
@@ -0,0 +1,168 @@
+package com.example.exptrack.services;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.exptrack.dtos.BudgetAlertDTO;
+import com.example.exptrack.dtos.CategorySummaryDTO;
+import com.example.exptrack.dtos.TransactionDTO;
+import com.example.exptrack.events.TransactionChangedEvent;
+import com.example.exptrack.models.Budget;
+import com.example.exptrack.models.BudgetAlert;
+import com.example.exptrack.repositories.BudgetAlertRepository;
+import com.example.exptrack.repositories.BudgetRepository;
+import com.example.exptrack.repositories.BudgetSpendRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Evaluates budget thresholds off the write path. Committed expense writes only
+// mark the (user, month) as dirty; a single background worker picks dirty users
+// up after a short delay, so a burst of writes costs one evaluation against the
+// spend counters. The dirty set is bounded: when it is full, further users are
+// skipped until their next write rather than slowing writers down.
+@Service
+public class BudgetAlertService {
+
+  private static final Logger log = LoggerFactory.getLogger(BudgetAlertService.class);
+
+  @Autowired
+  private BudgetRepository budgetRepository;
+  @Autowired
+  private BudgetSpendRepository budgetSpendRepository;
+  @Autowired
+  private BudgetAlertRepository budgetAlertRepository;
+
+  private final Map<Long, Set<LocalDate>> dirtyMonths = new ConcurrentHashMap<>();
+  private final ScheduledThreadPoolExecutor worker;
+  private final TransactionTemplate transactionTemplate;
+  private final List<Integer> thresholds;
+  private final int maxPendingUsers;
+  private final long coalesceDelayMillis;
+
+  public BudgetAlertService(
+      PlatformTransactionManager transactionManager,
+      @Value("${budget.alert-thresholds:80,100}") List<Integer> thresholds,
+      @Value("${budget.alert-max-pending-users:10000}") int maxPendingUsers,
+      @Value("${budget.alert-coalesce-ms:500}") long coalesceDelayMillis) {
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.thresholds = thresholds.stream().sorted().toList();
+    this.maxPendingUsers = maxPendingUsers;
+    this.coalesceDelayMillis = coalesceDelayMillis;
+    this.worker = new ScheduledThreadPoolExecutor(1, r -> {
+      Thread t = new Thread(r, "budget-alerts");
+      t.setDaemon(true);
+      return t;
+    });
+    this.worker.setRemoveOnCancelPolicy(true);
+  }
+
+  public List<BudgetAlertDTO> getAlerts(Long userId, int limit) {
+    PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, 500)));
+    return budgetAlertRepository.findByUserIdOrderByCreatedAtDesc(userId, page).stream()
+        .map(this::convertToDTO)
+        .toList();
+  }
+
+  @TransactionalEventListener
+  public void onTransactionChanged(TransactionChangedEvent event) {
+    TransactionDTO expense = event.transaction();
+    if ("deleted".equals(event.action()) || expense == null || !"expense".equals(expense.getType())
+        || expense.getCreationDate() == null) {
+      return; // Spend only goes down on deletes, nothing can cross a threshold
+    }
+    LocalDate month = BudgetService.monthOf(expense.getCreationDate());
+
+    boolean[] firstMark = { false };
+    if (!dirtyMonths.containsKey(event.userId()) && dirtyMonths.size() >= maxPendingUsers) {
+      return;
+    }
+    dirtyMonths.compute(event.userId(), (id, months) -> {
+      if (months == null) {
+        firstMark[0] = true;
+        months = ConcurrentHashMap.newKeySet();
+      }
+      months.add(month);
+      return months;
+    });
+
+    if (firstMark[0]) {
+      try {
+        worker.schedule(() -> evaluate(event.userId()), coalesceDelayMillis, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+        dirtyMonths.remove(event.userId());
+      }
+    }
+  }
+
+  private void evaluate(Long userId) {
+    Set<LocalDate> months = dirtyMonths.remove(userId);
+    if (months == null || months.isEmpty()) {
+      return;
+    }
+
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        Map<String, Double> budgets = budgetRepository.findByUserIdOrderByCategory(userId).stream()
+            .filter(b -> b.getAmount() != null && b.getAmount() > 0)
+            .collect(Collectors.toMap(Budget::getCategory, Budget::getAmount));
+        if (budgets.isEmpty()) {
+          return;
+        }
+
+        Date now = new Date();
+        for (LocalDate month : new HashSet<>(months)) {
+          for (CategorySummaryDTO spend : budgetSpendRepository.sumSpendByCategory(userId, month, month)) {
+            Double budget = budgets.get(spend.getName());
+            if (budget == null || spend.getAmount() == null) {
+              continue;
+            }
+            double percentUsed = spend.getAmount() / budget * 100;
+            for (Integer threshold : thresholds) {
+              if (percentUsed >= threshold) {
+                budgetAlertRepository.insertIfAbsent(
+                    userId, spend.getName(), month, threshold, budget, spend.getAmount(), now);
+              }
+            }
+          }
+        }
+      });
+    } catch (RuntimeException e) {
+      log.warn("Budget alert evaluation failed for user {}", userId, e);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    worker.shutdownNow();
+  }
+
+  private BudgetAlertDTO convertToDTO(BudgetAlert alert) {
+    return new BudgetAlertDTO(
+        alert.getId(),
+        alert.getCategory(),
+        alert.getPeriodStart().toString().substring(0, 7),
+        alert.getThreshold(),
+        alert.getBudget(),
+        alert.getSpent(),
+        alert.getCreatedAt());
+  }
+}
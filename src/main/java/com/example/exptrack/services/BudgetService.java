@@ -0,0 +1,236 @@
+package com.example.exptrack.services;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.exptrack.dtos.BudgetDTO;
+import com.example.exptrack.dtos.BudgetVsActualDTO;
+import com.example.exptrack.dtos.CategorySummaryDTO;
+import com.example.exptrack.dtos.TransactionDTO;
+import com.example.exptrack.events.TransactionChangedEvent;
+import com.example.exptrack.models.Budget;
+import com.example.exptrack.models.User;
+import com.example.exptrack.repositories.BudgetRepository;
+import com.example.exptrack.repositories.BudgetSpendRepository;
+import com.example.exptrack.repositories.DataMigrationRepository;
+import com.example.exptrack.repositories.ExpenseRepository;
+import com.example.exptrack.repositories.UserRepository;
+
+@Service
+@Transactional
+public class BudgetService implements SmartInitializingSingleton {
+
+  private static final Logger log = LoggerFactory.getLogger(BudgetService.class);
+
+  private static final String SPEND_BACKFILL = "budget-spend-backfill";
+
+  @Autowired
+  private BudgetRepository budgetRepository;
+  @Autowired
+  private BudgetSpendRepository budgetSpendRepository;
+  @Autowired
+  private DataMigrationRepository dataMigrationRepository;
+  @Autowired
+  private ExpenseRepository expenseRepository;
+  @Autowired
+  private UserRepository userRepository;
+
+  /* ===================== CRUD ===================== */
+
+  public List<BudgetDTO> getBudgets(Long userId) {
+    return budgetRepository.findByUserIdOrderByCategory(userId).stream()
+        .map(this::convertToDTO)
+        .toList();
+  }
+
+  public BudgetDTO createBudget(Long userId, BudgetDTO budgetDTO) {
+    validate(budgetDTO.category(), budgetDTO.amount());
+    if (budgetRepository.existsByUserIdAndCategory(userId, budgetDTO.category())) {
+      throw new IllegalArgumentException("A budget already exists for category " + budgetDTO.category());
+    }
+
+    User user = userRepository.findById(userId)
+        .orElseThrow(() -> new RuntimeException("User not found"));
+
+    Budget saved = budgetRepository.save(new Budget(user, budgetDTO.category(), budgetDTO.amount()));
+    return convertToDTO(saved);
+  }
+
+  public BudgetDTO updateBudget(Long userId, Long budgetId, BudgetDTO budgetDTO) {
+    Budget budget = budgetRepository.findByIdAndUserId(budgetId, userId)
+        .orElseThrow(() -> new RuntimeException("Budget not found"));
+
+    // Absent fields keep their current value; present ones are held to the create rules
+    validate(budgetDTO.category() != null ? budgetDTO.category() : budget.getCategory(),
+        budgetDTO.amount() != null ? budgetDTO.amount() : budget.getAmount());
+    if (budgetDTO.category() != null && !budgetDTO.category().equals(budget.getCategory())) {
+      if (budgetRepository.existsByUserIdAndCategory(userId, budgetDTO.category())) {
+        throw new IllegalArgumentException("A budget already exists for category " + budgetDTO.category());
+      }
+      budget.setCategory(budgetDTO.category());
+    }
+    if (budgetDTO.amount() != null) {
+      budget.setAmount(budgetDTO.amount());
+    }
+
+    return convertToDTO(budgetRepository.save(budget));
+  }
+
+  public void deleteBudget(Long userId, Long budgetId) {
+    Budget budget = budgetRepository.findByIdAndUserId(budgetId, userId)
+        .orElseThrow(() -> new RuntimeException("Budget not found"));
+    budgetRepository.delete(budget);
+  }
+
+  /* ===================== SPEND COUNTERS ===================== */
+
+  // Runs inside the expense write's transaction, so counters commit or roll back with it
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void onTransactionChanged(TransactionChangedEvent event) {
+    TransactionDTO current = event.transaction();
+    TransactionDTO previous = event.previous();
+
+    if (current != null && "expense".equals(current.getType())) {
+      recordSpend(event.userId(), current, "deleted".equals(event.action()) ? -1 : 1);
+    }
+    if (previous != null && "expense".equals(previous.getType())) {
+      recordSpend(event.userId(), previous, -1);
+    }
+  }
+
+  private void recordSpend(Long userId, TransactionDTO expense, int sign) {
+    if (expense.getAmount() == null || expense.getCreationDate() == null) {
+      return;
+    }
+    budgetSpendRepository.addSpend(
+        userId,
+        expense.getCategory() != null ? expense.getCategory() : "Uncategorized",
+        monthOf(expense.getCreationDate()),
+        sign * expense.getAmount());
+  }
+
+  // Counters start empty when the table is first created; seed them from existing
+  // expenses, once per database. Runs before the web server starts, so no expense
+  // write of this instance can create a counter ahead of the backfill
+  @Override
+  public void afterSingletonsInstantiated() {
+    if (dataMigrationRepository.claim(SPEND_BACKFILL, new Date()) > 0) {
+      backfillSpendCounters();
+    }
+  }
+
+  // Adds counters for the (user, category, month) groups of expenses that have none
+  public void backfillSpendCounters() {
+    int rows = budgetSpendRepository.backfillFromExpenses();
+    log.info("Backfilled {} budget spend counters from existing expenses", rows);
+  }
+
+  /* ===================== BUDGET VS ACTUAL ===================== */
+
+  @Transactional(readOnly = true)
+  public BudgetVsActualDTO getBudgetVsActual(Long userId, String timeFrame) {
+    LocalDate now = LocalDate.now();
+    LocalDate thisMonth = now.withDayOfMonth(1);
+
+    // Actual spend per category: counters for whole-month frames, a grouped query otherwise.
+    // budgetFactor scales the monthly budgets to the length of the frame.
+    List<CategorySummaryDTO> actuals;
+    double budgetFactor;
+    switch (timeFrame.toLowerCase()) {
+      case "day":
+      case "week": {
+        // Today and, for a week, the six days before it; the budget is scaled by the
+        // same number of days the actuals cover
+        LocalDate start = timeFrame.equalsIgnoreCase("day") ? now : now.minusDays(6);
+        LocalDate end = now.plusDays(1);
+        actuals = expenseRepository.getExpenseCategorySummary(userId,
+            Date.from(start.atStartOfDay(ZoneId.systemDefault()).toInstant()),
+            Date.from(end.atStartOfDay(ZoneId.systemDefault()).toInstant()));
+        budgetFactor = (double) ChronoUnit.DAYS.between(start, end) / now.lengthOfMonth();
+        break;
+      }
+      case "year":
+        actuals = budgetSpendRepository.sumSpendByCategory(userId, now.withDayOfYear(1), thisMonth);
+        budgetFactor = now.getMonthValue();
+        break;
+      case "all": {
+        LocalDate firstPeriod = budgetSpendRepository.findFirstPeriod(userId);
+        LocalDate from = firstPeriod != null && firstPeriod.isBefore(thisMonth) ? firstPeriod : thisMonth;
+        actuals = budgetSpendRepository.sumSpendByCategory(userId, from, thisMonth);
+        budgetFactor = ChronoUnit.MONTHS.between(from, thisMonth) + 1;
+        break;
+      }
+      case "month":
+      default:
+        actuals = budgetSpendRepository.sumSpendByCategory(userId, thisMonth, thisMonth);
+        budgetFactor = 1;
+    }
+
+    Map<String, Double> actualByCategory = new TreeMap<>();
+    for (CategorySummaryDTO actual : actuals) {
+      actualByCategory.put(actual.getName(), actual.getAmount() != null ? actual.getAmount() : 0.0);
+    }
+
+    Map<String, Double> budgetByCategory = new TreeMap<>();
+    for (Budget budget : budgetRepository.findByUserIdOrderByCategory(userId)) {
+      budgetByCategory.put(budget.getCategory(), budget.getAmount() * budgetFactor);
+    }
+
+    // Every category that has either a budget or spend
+    Map<String, Double> allCategories = new TreeMap<>(budgetByCategory);
+    actualByCategory.keySet().forEach(category -> allCategories.putIfAbsent(category, 0.0));
+
+    List<BudgetVsActualDTO.CategoryVariance> categories = new ArrayList<>(allCategories.size());
+    for (String category : allCategories.keySet()) {
+      Double actual = actualByCategory.getOrDefault(category, 0.0);
+      Double budget = budgetByCategory.getOrDefault(category, 0.0);
+      Double variance = actual - budget;
+      Double variancePercent = budget > 0 ? (variance / budget) * 100 : 0;
+      categories.add(new BudgetVsActualDTO.CategoryVariance(category, budget, actual, variance, variancePercent));
+    }
+
+    Double totalBudget = budgetByCategory.values().stream().mapToDouble(Double::doubleValue).sum();
+    Double totalActual = actualByCategory.values().stream().mapToDouble(Double::doubleValue).sum();
+    Double totalVariance = totalActual - totalBudget;
+    Double totalVariancePercent = totalBudget > 0 ? (totalVariance / totalBudget) * 100 : 0;
+
+    return new BudgetVsActualDTO(
+        categories,
+        new BudgetVsActualDTO.Variance(totalBudget, totalActual, totalVariance, totalVariancePercent),
+        timeFrame);
+  }
+
+  /* ===================== HELPERS ===================== */
+
+  static LocalDate monthOf(Date date) {
+    return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate().withDayOfMonth(1);
+  }
+
+  private void validate(String category, Double amount) {
+    if (category == null || category.isBlank()) {
+      throw new IllegalArgumentException("Budget category is required");
+    }
+    if (amount == null || amount < 0) {
+      throw new IllegalArgumentException("Budget amount must be zero or positive");
+    }
+  }
+
+  private BudgetDTO convertToDTO(Budget budget) {
+    return new BudgetDTO(budget.getId(), budget.getCategory(), budget.getAmount());
+  }
+}
@@ -18,7 +18,7 @@ public class ExpenseService {
   @Autowired
   private UserService userService;
 
-  @Transactional
+  @Transactional(readOnly = true)
   public List<Expense> getExpensesByUserId(Long userId) {
     return expenseRep.findByUser(userService.findById(userId));
   }
@@ -0,0 +1,64 @@
+package com.example.exptrack.services;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.exptrack.utils.HoltWinters;
+
+// Serves Holt-Winters forecasts for trend series. Fitting is the expensive part,
+// so fitted parameters are cached per (user, series, granularity, range start,
+// range end). A new range end that closes exactly one more period than the latest
+// model of the series is refit starting from that model's parameters; any other
+// end gets a full fit. Serving a forecast is a single smoothing pass over the series.
+@Service
+public class ForecastService {
+
+  private final Map<String, FittedModel> models;
+  // Most recently fitted model per series, keyed without the range end
+  private final Map<String, FittedModel> latest;
+
+  public ForecastService(@Value("${forecast.cache-max-entries:50000}") int maxEntries) {
+    this.models = lru(maxEntries);
+    this.latest = lru(maxEntries);
+  }
+
+  // closed holds the values of closed periods only; the result has one more entry,
+  // the forecast for the period following the last closed one
+  public double[] forecast(Long userId, String seriesKey, String granularity, String firstPeriod,
+      String lastClosedPeriod, double[] closed, int seasonLength) {
+    String series = userId + "|" + seriesKey + "|" + granularity + "|" + firstPeriod;
+    String key = series + "|" + lastClosedPeriod;
+
+    FittedModel model = models.get(key);
+    if (model == null) {
+      FittedModel previous = latest.get(series);
+      HoltWinters.Parameters parameters = previous != null && previous.periods() == closed.length - 1
+          ? HoltWinters.refit(closed, previous.parameters(), previous.seasonLength())
+          : HoltWinters.fit(closed, seasonLength);
+      model = new FittedModel(parameters, seasonLength, closed.length);
+      models.put(key, model);
+      if (previous == null || previous.periods() < closed.length) {
+        latest.put(series, model);
+      }
+    }
+
+    return HoltWinters.oneStepForecasts(closed, model.parameters());
+  }
+
+  private static Map<String, FittedModel> lru(int maxEntries) {
+    return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, FittedModel> eldest) {
+        return size() > maxEntries;
+      }
+    });
+  }
+
+  // seasonLength is the requested one; parameters carry the effective one
+  private record FittedModel(HoltWinters.Parameters parameters, int seasonLength, int periods) {
+  }
+}
@@ -9,11 +9,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.example.exptrack.dtos.UserDTO;
+import com.example.exptrack.utils.ServiceMetrics;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Timer;
 import javax.crypto.SecretKey;
 
 @Service
@@ -23,15 +25,24 @@ public class JwtService {
   private final Long ACCESS_TOKEN_EXPIRATION;
   private final Long REFRESH_TOKEN_EXPIRATION;
 
+  private final Timer generateTimer;
+  private final Timer verifyTimer;
+  private final Timer refreshTimer;
+
   public JwtService(
       @Value("${jwt.secret}") String secret,
       @Value("${jwt.expiration}") Long accessExpiration,
-      @Value("${jwt.refresh-expiration}") Long refreshExpiration) {
+      @Value("${jwt.refresh-expiration}") Long refreshExpiration,
+      ServiceMetrics metrics) {
 
     // Convert the string secret to a secure key
     this.SECRET_KEY = Keys.hmacShaKeyFor(secret.getBytes());
     this.ACCESS_TOKEN_EXPIRATION = accessExpiration;
     this.REFRESH_TOKEN_EXPIRATION = refreshExpiration;
+
+    this.generateTimer = metrics.jwtTimer("generate");
+    this.verifyTimer = metrics.jwtTimer("verify");
+    this.refreshTimer = metrics.jwtTimer("refresh");
   }
 
   public String generateAccessToken(UserDTO user) {
@@ -49,6 +60,10 @@ public class JwtService {
   }
 
   private String generateToken(UserDTO user, Long expiration, String tokenType) {
+    return generateTimer.record(() -> buildToken(user, expiration, tokenType));
+  }
+
+  private String buildToken(UserDTO user, Long expiration, String tokenType) {
     Map<String, Object> claims = new HashMap<>();
     claims.put("id", user.id());
     claims.put("username", user.username());
@@ -64,11 +79,11 @@ public class JwtService {
   }
 
   public Claims extractAllClaims(String token) {
-    return Jwts.parserBuilder()
+    return verifyTimer.record(() -> Jwts.parserBuilder()
         .setSigningKey(SECRET_KEY)
         .build()
         .parseClaimsJws(token)
-        .getBody();
+        .getBody());
   }
 
   public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -148,6 +163,10 @@ public class JwtService {
   }
 
   public String refreshAccessToken(String refreshToken) {
+    return refreshTimer.record(() -> doRefreshAccessToken(refreshToken));
+  }
+
+  private String doRefreshAccessToken(String refreshToken) {
     if (!isRefreshToken(refreshToken)) {
       throw new IllegalArgumentException("Invalid refresh token type");
     }
@@ -161,6 +180,10 @@ public class JwtService {
   }
 
   public TokenPair refreshTokenPair(String refreshToken) {
+    return refreshTimer.record(() -> doRefreshTokenPair(refreshToken));
+  }
+
+  private TokenPair doRefreshTokenPair(String refreshToken) {
     if (!isRefreshToken(refreshToken)) {
       throw new IllegalArgumentException("Invalid refresh token type");
     }
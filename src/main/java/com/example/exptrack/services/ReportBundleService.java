@@ -0,0 +1,195 @@
+package com.example.exptrack.services;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+// Renders one prepared report dataset in several formats at once and streams the
+// results as a zip. Renders run in parallel on a small bounded pool (the request
+// thread renders itself when the pool is saturated) and entries are written in the
+// requested order as soon as each render is done, so the zip is built in one pass.
+@Service
+public class ReportBundleService {
+
+  private static final Logger log = LoggerFactory.getLogger(ReportBundleService.class);
+
+  public static final List<String> DEFAULT_FORMATS = List.of("pdf", "csv", "json");
+
+  private static final Map<String, String> EXTENSIONS = Map.of(
+      "pdf", "pdf", "html", "html", "markdown", "md", "csv", "csv", "json", "json", "xlsx", "xlsx");
+
+  @Autowired
+  private ReportGeneratorService reportGeneratorService;
+
+  private final ExecutorService renderers;
+
+  // One rendered file of the bundle, in memory or, for a workbook, in a temp file
+  private record Entry(String name, byte[] bytes, Path file) {
+    Entry(String name, byte[] bytes) {
+      this(name, bytes, null);
+    }
+  }
+
+  public ReportBundleService(
+      @Value("${report.bundle-threads:4}") int threads,
+      @Value("${report.bundle-queue-capacity:64}") int queueCapacity) {
+    this.renderers = new ThreadPoolExecutor(
+        threads, threads,
+        30, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(queueCapacity),
+        r -> {
+          Thread t = new Thread(r, "report-bundle");
+          t.setDaemon(true);
+          return t;
+        },
+        new ThreadPoolExecutor.CallerRunsPolicy());
+    ((ThreadPoolExecutor) renderers).allowCoreThreadTimeOut(true);
+  }
+
+  // Known formats in request order, without duplicates; the defaults when none is known
+  public static List<String> formats(List<String> requested) {
+    Set<String> formats = new LinkedHashSet<>();
+    if (requested != null) {
+      for (String format : requested) {
+        if (format != null && EXTENSIONS.containsKey(format.toLowerCase(Locale.ROOT))) {
+          formats.add(format.toLowerCase(Locale.ROOT));
+        }
+      }
+    }
+    return formats.isEmpty() ? DEFAULT_FORMATS : List.copyOf(formats);
+  }
+
+  // data is the summary/tables map the document formats render; json is the document
+  // the JSON entry serialises. CSV gets one file per table plus one for the summary.
+  // A workbook can hold every row of a streamed table, so it is rendered into a temp
+  // file instead of a byte array. The files are created here and deleted when the
+  // bundle is done; a render still running then cannot recreate its file.
+  public void writeBundle(String baseName, String title, Map<String, Object> data, Object json,
+      List<String> formats, OutputStream out) throws IOException {
+    List<Future<List<Entry>>> renders = new ArrayList<>(formats.size());
+    List<Path> files = new ArrayList<>();
+    try {
+      for (String format : formats) {
+        Path file = format.equals("xlsx") ? Files.createTempFile("report-bundle-", ".xlsx") : null;
+        if (file != null) {
+          files.add(file);
+        }
+        renders.add(renderers.submit(() -> render(format, baseName, title, data, json, file)));
+      }
+
+      ZipOutputStream zip = new ZipOutputStream(out);
+      // Most of the bundle is PDF, which is compressed already
+      zip.setLevel(Deflater.BEST_SPEED);
+      for (Future<List<Entry>> render : renders) {
+        for (Entry entry : render.get()) {
+          zip.putNextEntry(new ZipEntry(entry.name()));
+          if (entry.file() != null) {
+            Files.copy(entry.file(), zip);
+          } else {
+            zip.write(entry.bytes());
+          }
+          zip.closeEntry();
+        }
+      }
+      zip.finish(); // The servlet stream is closed by the container
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while rendering the report bundle", e);
+    } catch (ExecutionException e) {
+      throw new IOException("Could not render the report bundle", e.getCause());
+    } finally {
+      renders.forEach(render -> render.cancel(true));
+      for (Path file : files) {
+        try {
+          Files.deleteIfExists(file);
+        } catch (IOException e) {
+          log.warn("Could not delete report bundle file {}: {}", file, e.getMessage());
+        }
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    renderers.shutdownNow();
+  }
+
+  private List<Entry> render(String format, String baseName, String title, Map<String, Object> data,
+      Object json, Path file) throws IOException {
+    String name = baseName + "." + EXTENSIONS.get(format);
+    return switch (format) {
+      case "html" -> List.of(new Entry(name, reportGeneratorService.generateHtml(title, data)));
+      case "markdown" -> List.of(new Entry(name, reportGeneratorService.generateMarkdown(title, data)));
+      case "json" -> List.of(new Entry(name, reportGeneratorService.generateJson(json)));
+      case "xlsx" -> List.of(xlsxEntry(name, title, data, file));
+      case "csv" -> csvEntries(baseName, data);
+      default -> List.of(new Entry(name, reportGeneratorService.generatePdf(title, data)));
+    };
+  }
+
+  // Without CREATE: once the bundle has deleted the file, a late render fails instead
+  // of leaving a new one behind
+  private Entry xlsxEntry(String name, String title, Map<String, Object> data, Path file) throws IOException {
+    try (OutputStream out = new BufferedOutputStream(
+        Files.newOutputStream(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))) {
+      reportGeneratorService.writeXlsx(title, data, out);
+    }
+    return new Entry(name, null, file);
+  }
+
+  private List<Entry> csvEntries(String baseName, Map<String, Object> data) {
+    List<Entry> entries = new ArrayList<>();
+    Map<String, Object> summary = (Map<String, Object>) data.getOrDefault("summary", Map.of());
+    List<Map<String, Object>> summaryRows = new ArrayList<>(summary.size());
+    for (Map.Entry<String, Object> item : summary.entrySet()) {
+      summaryRows.add(Map.of("Metric", item.getKey(), "Value", item.getValue()));
+    }
+    entries.add(new Entry(baseName + "_summary.csv",
+        reportGeneratorService.generateCsv("Summary", summaryRows, List.of("Metric", "Value"))));
+
+    List<Map<String, Object>> tables = (List<Map<String, Object>>) data.getOrDefault("tables", List.of());
+    for (Map<String, Object> table : tables) {
+      String title = (String) table.getOrDefault("title", "Data");
+      List<String> headers = (List<String>) table.getOrDefault("headers", List.of());
+      Iterable<List<Object>> rows = (Iterable<List<Object>>) table.getOrDefault("rows", List.of());
+      entries.add(new Entry(baseName + "_" + slug(title) + ".csv",
+          reportGeneratorService.generateCsvTable(title, rows, headers)));
+    }
+    return entries;
+  }
+
+  // File-name safe form of free text: lower-case ASCII letters, digits and dashes only
+  public static String slug(String title) {
+    if (title == null) {
+      return "data";
+    }
+    String slug = title.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+    return slug.isEmpty() ? "data" : slug;
+  }
+}
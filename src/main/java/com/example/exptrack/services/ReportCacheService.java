@@ -0,0 +1,276 @@
+package com.example.exptrack.services;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.example.exptrack.dtos.ReportRequestDTO;
+
+// Rendered report bytes, keyed by a hash of everything the bytes depend on: user,
+// report type, range, format, the user's data version and the day (reports print
+// their generation date). Every rendered report is written to a bounded LRU
+// directory; small ones are also kept in a bounded in-memory LRU. Disk hits are
+// streamed from the file rather than read onto the heap. Keys of stale versions
+// are never asked for again and age out of both levels.
+@Service
+public class ReportCacheService {
+
+  private static final Logger log = LoggerFactory.getLogger(ReportCacheService.class);
+
+  private static final String SUFFIX = ".report";
+
+  private final Path directory;
+  private final long maxDiskBytes;
+  private final long maxMemoryBytes;
+  private final long maxMemoryEntryBytes;
+
+  // Both access-ordered, least recently used first; guarded by this
+  private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<String, Long> disk = new LinkedHashMap<>(16, 0.75f, true);
+  private long memoryBytes;
+  private long diskBytes;
+
+  // A cached report and the level it came from, "memory" or "disk"
+  public record Hit(Resource body, String level) {
+  }
+
+  // Writes a rendered report to the given stream
+  @FunctionalInterface
+  public interface Render {
+    void write(OutputStream out) throws IOException;
+  }
+
+  public ReportCacheService(
+      @Value("${report.cache-dir:${java.io.tmpdir}/exptrack-reports}") Path directory,
+      @Value("${report.cache-disk-size:512MB}") DataSize maxDiskSize,
+      @Value("${report.cache-memory-size:32MB}") DataSize maxMemorySize,
+      @Value("${report.cache-memory-max-entry-size:1MB}") DataSize maxMemoryEntrySize) throws IOException {
+    this.directory = directory;
+    this.maxDiskBytes = maxDiskSize.toBytes();
+    this.maxMemoryBytes = maxMemorySize.toBytes();
+    this.maxMemoryEntryBytes = maxMemoryEntrySize.toBytes();
+    Files.createDirectories(directory);
+    loadIndex();
+  }
+
+  public String key(Long userId, ReportRequestDTO request, String format, String dataVersion) {
+    String identity = String.join("|", String.valueOf(userId), request.type(), request.startDate(),
+        request.endDate(), format, dataVersion, LocalDate.now().toString());
+    try {
+      MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(sha256.digest(identity.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e); // Every JVM ships SHA-256
+    }
+  }
+
+  // null on a miss
+  public Hit get(String key) {
+    Long size;
+    synchronized (this) {
+      byte[] bytes = memory.get(key);
+      if (bytes != null) {
+        return new Hit(new ByteArrayResource(bytes), "memory");
+      }
+      size = disk.get(key);
+    }
+    if (size == null) {
+      return null;
+    }
+    try {
+      // Opened here, so an eviction that unlinks the file cannot break the response
+      return new Hit(streamed(Files.newInputStream(file(key)), size), "disk");
+    } catch (NoSuchFileException e) {
+      forget(key);
+      return null;
+    } catch (IOException e) {
+      log.warn("Could not read cached report {}: {}", key, e.getMessage());
+      return null;
+    }
+  }
+
+  // Whether either level holds the key; does not count as a use
+  public synchronized boolean contains(String key) {
+    return memory.containsKey(key) || disk.containsKey(key);
+  }
+
+  public Resource put(String key, byte[] bytes) {
+    if (bytes.length <= maxMemoryEntryBytes) {
+      remember(key, bytes);
+    }
+    if (bytes.length <= maxDiskBytes) {
+      try {
+        // Written aside and renamed, so readers never see a partial file
+        Path temp = directory.resolve("tmp-" + UUID.randomUUID());
+        Files.write(temp, bytes);
+        Files.move(temp, file(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        index(key, bytes.length);
+      } catch (IOException e) {
+        log.warn("Could not cache report {}: {}", key, e.getMessage());
+      }
+    }
+    return new ByteArrayResource(bytes);
+  }
+
+  // Renders straight into the cache file instead of a heap buffer, and serves the
+  // report from that file. null when the report could not be written (logged); the
+  // caller then renders it in memory instead. Exceptions of the renderer itself
+  // propagate
+  public Resource put(String key, Render render) {
+    Path temp = directory.resolve("tmp-" + UUID.randomUUID());
+    try {
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+        render.write(out);
+      }
+      long size = Files.size(temp);
+      if (size > maxDiskBytes) {
+        // Too big to keep; the open stream outlives the unlinked file
+        InputStream in = Files.newInputStream(temp);
+        Files.delete(temp);
+        return streamed(in, size);
+      }
+      Files.move(temp, file(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      if (size <= maxMemoryEntryBytes) {
+        byte[] bytes = Files.readAllBytes(file(key));
+        remember(key, bytes);
+        index(key, size);
+        return new ByteArrayResource(bytes);
+      }
+      // Opened before indexing, so an eviction that unlinks the file cannot break the response
+      InputStream in = Files.newInputStream(file(key));
+      index(key, size);
+      return streamed(in, size);
+    } catch (IOException e) {
+      log.warn("Could not cache report {}: {}", key, e.getMessage());
+      return null;
+    } finally {
+      // Still there when the write failed, also on an unchecked exception from the
+      // renderer, which is passed on to the caller
+      try {
+        Files.deleteIfExists(temp);
+      } catch (IOException cleanup) {
+        // Removed with the other interrupted writes on the next start
+      }
+    }
+  }
+
+  private synchronized void remember(String key, byte[] bytes) {
+    byte[] previous = memory.put(key, bytes);
+    memoryBytes += bytes.length - (previous != null ? previous.length : 0);
+    evictMemory();
+  }
+
+  private void index(String key, long size) {
+    List<String> evicted;
+    synchronized (this) {
+      Long previous = disk.put(key, size);
+      diskBytes += size - (previous != null ? previous : 0);
+      evicted = evictDisk();
+    }
+    delete(evicted);
+  }
+
+  private static Resource streamed(InputStream in, long size) {
+    return new InputStreamResource(in) {
+      @Override
+      public long contentLength() {
+        return size;
+      }
+    };
+  }
+
+  private synchronized void forget(String key) {
+    Long size = disk.remove(key);
+    if (size != null) {
+      diskBytes -= size;
+    }
+  }
+
+  private void evictMemory() {
+    Iterator<byte[]> eldest = memory.values().iterator();
+    while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+      memoryBytes -= eldest.next().length;
+      eldest.remove();
+    }
+  }
+
+  private List<String> evictDisk() {
+    List<String> evicted = new ArrayList<>();
+    Iterator<Map.Entry<String, Long>> eldest = disk.entrySet().iterator();
+    while (diskBytes > maxDiskBytes && eldest.hasNext()) {
+      Map.Entry<String, Long> entry = eldest.next();
+      diskBytes -= entry.getValue();
+      evicted.add(entry.getKey());
+      eldest.remove();
+    }
+    return evicted;
+  }
+
+  private void delete(List<String> keys) {
+    for (String key : keys) {
+      try {
+        Files.deleteIfExists(file(key));
+      } catch (IOException e) {
+        log.warn("Could not evict cached report {}: {}", key, e.getMessage());
+      }
+    }
+  }
+
+  // Reports cached before a restart stay valid; oldest files are the first evicted
+  private void loadIndex() throws IOException {
+    List<Path> files;
+    try (Stream<Path> listing = Files.list(directory)) {
+      files = listing.filter(Files::isRegularFile).toList();
+    }
+    List<Path> reports = new ArrayList<>();
+    for (Path path : files) {
+      String name = path.getFileName().toString();
+      if (name.endsWith(SUFFIX)) {
+        reports.add(path);
+      } else if (name.startsWith("tmp-")) {
+        Files.deleteIfExists(path); // Interrupted write
+      }
+    }
+    reports.sort(Comparator.comparingLong(path -> path.toFile().lastModified()));
+    synchronized (this) {
+      for (Path path : reports) {
+        String name = path.getFileName().toString();
+        long size = Files.size(path);
+        disk.put(name.substring(0, name.length() - SUFFIX.length()), size);
+        diskBytes += size;
+      }
+      delete(evictDisk());
+    }
+  }
+
+  private Path file(String key) {
+    return directory.resolve(key + SUFFIX);
+  }
+}
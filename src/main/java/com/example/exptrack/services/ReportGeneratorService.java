@@ -2,67 +2,122 @@ package com.example.exptrack.services;
 
 import org.springframework.stereotype.Service;
 
+import com.example.exptrack.jfr.ReportRenderEvent;
+import com.example.exptrack.utils.CsvWriter;
+import com.example.exptrack.utils.CurrencyFormat;
+import com.example.exptrack.utils.ReportTemplate;
+import com.example.exptrack.utils.Utf8Output;
+
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-
-import java.io.StringWriter;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.regex.Pattern;
 
 @Service
 public class ReportGeneratorService {
 
   // ========== CSV GENERATION ==========
   public byte[] generateCsv(String title, List<Map<String, Object>> data, List<String> headers) {
-    StringWriter writer = new StringWriter();
+    ReportRenderEvent event = ReportRenderEvent.start("csv");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      writeCsv(data, headers, out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); // Not thrown by a ByteArrayOutputStream
+    }
+    byte[] bytes = out.toByteArray();
+    event.finish(data, bytes.length);
+    return bytes;
+  }
+
+  public void writeCsv(List<Map<String, Object>> data, List<String> headers, OutputStream stream)
+      throws IOException {
+    CsvWriter csv = new CsvWriter(stream);
 
     // Write headers
-    writer.write(String.join(",", headers));
-    writer.write("\n");
+    for (String header : headers) {
+      csv.field(header);
+    }
+    csv.endRow();
 
     // Write data
     for (Map<String, Object> row : data) {
-      List<String> values = new ArrayList<>();
       for (String header : headers) {
-        Object value = row.get(header);
-        String stringValue = value != null ? escapeCsvValue(value.toString()) : "";
-        values.add(stringValue);
+        writeCsvValue(csv, row.get(header));
       }
-      writer.write(String.join(",", values));
-      writer.write("\n");
+      csv.endRow();
     }
-
-    return writer.toString().getBytes(StandardCharsets.UTF_8);
+    csv.flush();
   }
 
-  private String escapeCsvValue(String value) {
-    if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
-      return "\"" + value.replace("\"", "\"\"") + "\"";
+  // A report table (headers plus positional rows) as CSV
+  public byte[] generateCsvTable(String title, Iterable<List<Object>> rows, List<String> headers) {
+    ReportRenderEvent event = ReportRenderEvent.start("csv");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      CsvWriter csv = new CsvWriter(out);
+      for (String header : headers) {
+        csv.field(header);
+      }
+      csv.endRow();
+      for (List<Object> row : rows) {
+        for (Object cell : row) {
+          writeCsvValue(csv, cell);
+        }
+        csv.endRow();
+      }
+      csv.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); // Not thrown by a ByteArrayOutputStream
     }
-    return value;
+    byte[] bytes = out.toByteArray();
+    event.finish(rows, bytes.length);
+    return bytes;
   }
 
-  // ========== HTML GENERATION ==========
-  public byte[] generateHtml(String title, Map<String, Object> reportData) {
-    String html = buildHtmlReport(title, reportData);
-    return html.getBytes(StandardCharsets.UTF_8);
+  // Counts as integers, other numbers as amounts to the cent
+  private void writeCsvValue(CsvWriter csv, Object value) throws IOException {
+    if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+      csv.field(((Number) value).longValue());
+    } else if (value instanceof Number number) {
+      csv.amount(number.doubleValue());
+    } else if (value instanceof LocalDate date) {
+      csv.date(date);
+    } else if (value instanceof Date date) {
+      csv.timestamp(date);
+    } else {
+      csv.field(value != null ? value.toString() : null);
+    }
   }
 
-  private String buildHtmlReport(String title, Map<String, Object> data) {
-    return """
+  // ========== HTML GENERATION ==========
+  // Compiled once; the page shell is copied as pre-encoded bytes on every render
+  private static final ReportTemplate HTML_PAGE = ReportTemplate.compile("""
             <!DOCTYPE html>
             <html>
             <head>
                 <meta charset="UTF-8">
-                <title>%s</title>
+                <title>{{title}}</title>
                 <style>
                     body {
                         font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;
@@ -151,171 +206,336 @@ public class ReportGeneratorService {
             </head>
             <body>
                 <div class="report-container">
-                    <h1>📊 %s</h1>
+                    <h1>📊 {{title}}</h1>
                     <div class="meta">
-                        Generated on: %s | Report ID: %s
+                        Generated on: {{date}} | Report ID: {{reportId}}
                     </div>
-                    %s
+                    {{content}}
                     <div class="footer">
-                        Generated by Expense Tracker | %s
+                        Generated by Expense Tracker | {{year}}
                     </div>
                 </div>
             </body>
             </html>
-            """.formatted(
-        title,
-        title,
-        LocalDate.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy")),
-        UUID.randomUUID().toString().substring(0, 8),
-        generateHtmlContent(data),
-        LocalDate.now().getYear());
+            """);
+
+  private static final byte[] HTML_SUMMARY_OPEN = Utf8Output.utf8("<div class='summary-grid'>\n");
+  private static final byte[] HTML_STAT_LABEL = Utf8Output.utf8("<div class='stat-card'>\n  <div class='stat-label'>");
+  private static final byte[] HTML_STAT_VALUE = Utf8Output.utf8("</div>\n  <div class='stat-value'>");
+  private static final byte[] HTML_STAT_CLOSE = Utf8Output.utf8("</div>\n</div>\n");
+  private static final byte[] HTML_DIV_CLOSE = Utf8Output.utf8("</div>\n");
+  private static final byte[] HTML_TITLE_OPEN = Utf8Output.utf8("<h3>");
+  private static final byte[] HTML_TITLE_CLOSE = Utf8Output.utf8("</h3>\n<table>\n<thead>\n<tr>\n");
+  private static final byte[] HTML_TH_OPEN = Utf8Output.utf8("<th>");
+  private static final byte[] HTML_TH_CLOSE = Utf8Output.utf8("</th>\n");
+  private static final byte[] HTML_HEAD_CLOSE = Utf8Output.utf8("</tr>\n</thead>\n<tbody>\n");
+  private static final byte[] HTML_ROW_OPEN = Utf8Output.utf8("<tr>\n");
+  private static final byte[] HTML_TD_OPEN = Utf8Output.utf8("<td>");
+  private static final byte[] HTML_TD_CLOSE = Utf8Output.utf8("</td>\n");
+  private static final byte[] HTML_ROW_CLOSE = Utf8Output.utf8("</tr>\n");
+  private static final byte[] HTML_TABLE_CLOSE = Utf8Output.utf8("</tbody>\n</table>\n");
+
+  private static final DateTimeFormatter HTML_DATE = DateTimeFormatter.ofPattern("MMMM dd, yyyy");
+  private static final Pattern CAPITAL = Pattern.compile("([A-Z])");
+  private static final Pattern LEADING_SPACE = Pattern.compile("^\\s+");
+
+  public byte[] generateHtml(String title, Map<String, Object> reportData) {
+    ReportRenderEvent event = ReportRenderEvent.start("html");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      writeHtml(title, reportData, out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); // Not thrown by a ByteArrayOutputStream
+    }
+    byte[] bytes = out.toByteArray();
+    event.finish(reportData, bytes.length);
+    return bytes;
   }
 
-  private String generateHtmlContent(Map<String, Object> data) {
-    StringBuilder content = new StringBuilder();
+  // Renders straight to the stream; text from the data is HTML-escaped
+  public void writeHtml(String title, Map<String, Object> data, OutputStream stream) throws IOException {
+    LocalDate today = LocalDate.now();
+    Utf8Output out = new Utf8Output(stream);
+    HTML_PAGE.render(out, Map.of(
+        "title", o -> o.writeHtml(title),
+        "date", o -> o.write(today.format(HTML_DATE)),
+        "reportId", o -> o.write(UUID.randomUUID().toString().substring(0, 8)),
+        "content", o -> writeHtmlContent(data, o),
+        "year", o -> o.write(Integer.toString(today.getYear()))));
+    out.flush();
+  }
 
+  private void writeHtmlContent(Map<String, Object> data, Utf8Output out) throws IOException {
     // Add summary if available
     if (data.containsKey("summary")) {
-      content.append("<div class='summary-grid'>\n");
+      out.write(HTML_SUMMARY_OPEN);
       Map<String, Object> summary = (Map<String, Object>) data.get("summary");
       for (Map.Entry<String, Object> entry : summary.entrySet()) {
-        String label = entry.getKey();
-        Object value = entry.getValue();
-        content.append(String.format(
-            "<div class='stat-card'>\n" +
-                "  <div class='stat-label'>%s</div>\n" +
-                "  <div class='stat-value'>%s</div>\n" +
-                "</div>\n",
-            formatLabel(label),
-            formatValue(value)));
+        out.write(HTML_STAT_LABEL);
+        out.writeHtml(formatLabel(entry.getKey()));
+        out.write(HTML_STAT_VALUE);
+        writeValue(entry.getValue(), out, true);
+        out.write(HTML_STAT_CLOSE);
       }
-      content.append("</div>\n");
+      out.write(HTML_DIV_CLOSE);
     }
 
     // Add tables if available
     if (data.containsKey("tables")) {
       List<Map<String, Object>> tables = (List<Map<String, Object>>) data.get("tables");
       for (Map<String, Object> table : tables) {
-        content.append(generateHtmlTable(table));
+        writeHtmlTable(table, out);
       }
     }
-
-    return content.toString();
   }
 
-  private String generateHtmlTable(Map<String, Object> table) {
+  private void writeHtmlTable(Map<String, Object> table, Utf8Output out) throws IOException {
     String title = (String) table.getOrDefault("title", "Data");
     List<String> headers = (List<String>) table.getOrDefault("headers", List.of());
-    List<List<Object>> rows = (List<List<Object>>) table.getOrDefault("rows", List.of());
+    Iterable<List<Object>> rows = (Iterable<List<Object>>) table.getOrDefault("rows", List.of());
 
-    StringBuilder tableHtml = new StringBuilder();
-    tableHtml.append("<h3>").append(title).append("</h3>\n");
-    tableHtml.append("<table>\n<thead>\n<tr>\n");
+    out.write(HTML_TITLE_OPEN);
+    out.writeHtml(title);
+    out.write(HTML_TITLE_CLOSE);
 
     for (String header : headers) {
-      tableHtml.append("<th>").append(header).append("</th>\n");
+      out.write(HTML_TH_OPEN);
+      out.writeHtml(header);
+      out.write(HTML_TH_CLOSE);
     }
-    tableHtml.append("</tr>\n</thead>\n<tbody>\n");
+    out.write(HTML_HEAD_CLOSE);
 
     for (List<Object> row : rows) {
-      tableHtml.append("<tr>\n");
+      out.write(HTML_ROW_OPEN);
       for (Object cell : row) {
-        tableHtml.append("<td>").append(formatValue(cell)).append("</td>\n");
+        out.write(HTML_TD_OPEN);
+        writeValue(cell, out, true);
+        out.write(HTML_TD_CLOSE);
       }
-      tableHtml.append("</tr>\n");
+      out.write(HTML_ROW_CLOSE);
     }
 
-    tableHtml.append("</tbody>\n</table>\n");
-    return tableHtml.toString();
+    out.write(HTML_TABLE_CLOSE);
   }
 
   private String formatLabel(String label) {
-    return label.replaceAll("([A-Z])", " $1").replaceAll("^\\s+", "").toLowerCase();
+    String spaced = CAPITAL.matcher(label).replaceAll(" $1");
+    return LEADING_SPACE.matcher(spaced).replaceAll("").toLowerCase();
   }
 
   private String formatValue(Object value) {
-    if (value instanceof Number) {
-      double num = ((Number) value).doubleValue();
-      if (Math.abs(num) >= 1000) {
-        return String.format("$%,.0f", num);
-      } else if (Math.abs(num) >= 100) {
-        return String.format("$%,.1f", num);
-      } else {
-        return String.format("$%,.2f", num);
-      }
+    if (value instanceof Number number) {
+      return CurrencyFormat.format(number.doubleValue());
     }
     return value.toString();
   }
 
+  // formatValue without the intermediate String for numbers
+  private void writeValue(Object value, Utf8Output out, boolean html) throws IOException {
+    if (value instanceof Number number) {
+      out.writeCurrency(number.doubleValue());
+    } else if (html) {
+      out.writeHtml(value.toString());
+    } else {
+      out.write(value.toString());
+    }
+  }
+
   // ========== MARKDOWN GENERATION ==========
+  private static final byte[] MD_SUMMARY = Utf8Output.utf8("## Summary\n\n");
+  private static final byte[] MD_ITEM_OPEN = Utf8Output.utf8("- **");
+  private static final byte[] MD_ITEM_VALUE = Utf8Output.utf8(":** ");
+  private static final byte[] MD_LINE = Utf8Output.utf8("\n");
+  private static final byte[] MD_ROW_OPEN = Utf8Output.utf8("| ");
+  private static final byte[] MD_CELL_CLOSE = Utf8Output.utf8(" | ");
+  private static final byte[] MD_RULE_OPEN = Utf8Output.utf8("|");
+  private static final byte[] MD_RULE_CELL = Utf8Output.utf8("---|");
+
   public byte[] generateMarkdown(String title, Map<String, Object> data) {
-    StringBuilder md = new StringBuilder();
+    ReportRenderEvent event = ReportRenderEvent.start("markdown");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      writeMarkdown(title, data, out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); // Not thrown by a ByteArrayOutputStream
+    }
+    byte[] bytes = out.toByteArray();
+    event.finish(data, bytes.length);
+    return bytes;
+  }
 
-    md.append("# ").append(title).append("\n\n");
-    md.append("**Generated:** ").append(LocalDate.now()).append("\n\n");
+  public void writeMarkdown(String title, Map<String, Object> data, OutputStream stream) throws IOException {
+    Utf8Output out = new Utf8Output(stream);
+    out.write("# " + title + "\n\n");
+    out.write("**Generated:** " + LocalDate.now() + "\n\n");
 
     // Add summary
     if (data.containsKey("summary")) {
-      md.append("## Summary\n\n");
+      out.write(MD_SUMMARY);
       Map<String, Object> summary = (Map<String, Object>) data.get("summary");
       for (Map.Entry<String, Object> entry : summary.entrySet()) {
-        md.append("- **").append(formatLabel(entry.getKey())).append(":** ")
-            .append(formatValue(entry.getValue())).append("\n");
+        out.write(MD_ITEM_OPEN);
+        out.write(formatLabel(entry.getKey()));
+        out.write(MD_ITEM_VALUE);
+        writeValue(entry.getValue(), out, false);
+        out.write(MD_LINE);
       }
-      md.append("\n");
+      out.write(MD_LINE);
     }
 
     // Add tables
     if (data.containsKey("tables")) {
       List<Map<String, Object>> tables = (List<Map<String, Object>>) data.get("tables");
       for (Map<String, Object> table : tables) {
-        md.append(generateMarkdownTable(table));
+        writeMarkdownTable(table, out);
       }
     }
-
-    return md.toString().getBytes(StandardCharsets.UTF_8);
+    out.flush();
   }
 
-  private String generateMarkdownTable(Map<String, Object> table) {
-    StringBuilder md = new StringBuilder();
+  private void writeMarkdownTable(Map<String, Object> table, Utf8Output out) throws IOException {
     String title = (String) table.getOrDefault("title", "Data");
     List<String> headers = (List<String>) table.getOrDefault("headers", List.of());
-    List<List<Object>> rows = (List<List<Object>>) table.getOrDefault("rows", List.of());
+    Iterable<List<Object>> rows = (Iterable<List<Object>>) table.getOrDefault("rows", List.of());
 
-    md.append("## ").append(title).append("\n\n");
+    out.write("## " + title + "\n\n");
 
     // Header
-    md.append("| ");
+    out.write(MD_ROW_OPEN);
     for (String header : headers) {
-      md.append(header).append(" | ");
+      out.write(header);
+      out.write(MD_CELL_CLOSE);
     }
-    md.append("\n");
+    out.write(MD_LINE);
 
     // Separator
-    md.append("|");
+    out.write(MD_RULE_OPEN);
     for (int i = 0; i < headers.size(); i++) {
-      md.append("---|");
+      out.write(MD_RULE_CELL);
     }
-    md.append("\n");
+    out.write(MD_LINE);
 
     // Rows
     for (List<Object> row : rows) {
-      md.append("| ");
+      out.write(MD_ROW_OPEN);
       for (Object cell : row) {
-        md.append(formatValue(cell)).append(" | ");
+        writeValue(cell, out, false);
+        out.write(MD_CELL_CLOSE);
       }
-      md.append("\n");
+      out.write(MD_LINE);
     }
 
-    md.append("\n");
-    return md.toString();
+    out.write(MD_LINE);
+  }
+
+  // ========== XLSX GENERATION ==========
+  // Rows kept in memory per sheet; older rows are flushed to a compressed temp file
+  private static final int XLSX_ROW_WINDOW = 100;
+
+  public byte[] generateXlsx(String title, Map<String, Object> data) throws IOException {
+    ReportRenderEvent event = ReportRenderEvent.start("xlsx");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writeXlsx(title, data, out);
+    byte[] bytes = out.toByteArray();
+    event.finish(data, bytes.length);
+    return bytes;
+  }
+
+  // A summary sheet, then one sheet per table; amounts and counts are numeric cells
+  public void writeXlsx(String title, Map<String, Object> data, OutputStream out) throws IOException {
+    SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+    workbook.setCompressTempFiles(true);
+    try {
+      Font bold = workbook.createFont();
+      bold.setBold(true);
+      CellStyle titleStyle = workbook.createCellStyle();
+      titleStyle.setFont(bold);
+      CellStyle headerStyle = workbook.createCellStyle();
+      headerStyle.setFont(bold);
+      headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+      headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+      CellStyle amountStyle = workbook.createCellStyle();
+      amountStyle.setDataFormat(workbook.createDataFormat().getFormat("$#,##0.00"));
+
+      Set<String> sheetNames = new HashSet<>();
+      SXSSFSheet summarySheet = workbook.createSheet(sheetName("Summary", sheetNames));
+      summarySheet.setColumnWidth(0, 32 * 256);
+      summarySheet.setColumnWidth(1, 20 * 256);
+      Cell titleCell = summarySheet.createRow(0).createCell(0);
+      titleCell.setCellValue(title);
+      titleCell.setCellStyle(titleStyle);
+      summarySheet.createRow(1).createCell(0)
+          .setCellValue("Generated: " + LocalDate.now().format(HTML_DATE));
+      int rowIndex = 3;
+      Map<String, Object> summary = (Map<String, Object>) data.getOrDefault("summary", Map.of());
+      for (Map.Entry<String, Object> entry : summary.entrySet()) {
+        Row row = summarySheet.createRow(rowIndex++);
+        row.createCell(0).setCellValue(entry.getKey());
+        writeXlsxValue(row.createCell(1), entry.getValue(), amountStyle);
+      }
+
+      List<Map<String, Object>> tables = (List<Map<String, Object>>) data.getOrDefault("tables", List.of());
+      for (Map<String, Object> table : tables) {
+        String tableTitle = (String) table.getOrDefault("title", "Data");
+        List<String> headers = (List<String>) table.getOrDefault("headers", List.of());
+        Iterable<List<Object>> rows = (Iterable<List<Object>>) table.getOrDefault("rows", List.of());
+
+        SXSSFSheet sheet = workbook.createSheet(sheetName(tableTitle, sheetNames));
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < headers.size(); i++) {
+          Cell cell = headerRow.createCell(i);
+          cell.setCellValue(headers.get(i));
+          cell.setCellStyle(headerStyle);
+          sheet.setColumnWidth(i, 20 * 256); // Auto-sizing would need every row in memory
+        }
+        sheet.createFreezePane(0, 1);
+
+        rowIndex = 1;
+        for (List<Object> cells : rows) {
+          Row row = sheet.createRow(rowIndex++);
+          for (int i = 0; i < cells.size(); i++) {
+            writeXlsxValue(row.createCell(i), cells.get(i), amountStyle);
+          }
+        }
+      }
+
+      workbook.write(out);
+    } finally {
+      workbook.dispose(); // Deletes the temp files
+      workbook.close();
+    }
+  }
+
+  private void writeXlsxValue(Cell cell, Object value, CellStyle amountStyle) {
+    if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+      cell.setCellValue(((Number) value).longValue());
+    } else if (value instanceof Number number) {
+      cell.setCellValue(number.doubleValue());
+      cell.setCellStyle(amountStyle);
+    } else if (value != null) {
+      cell.setCellValue(value.toString());
+    }
+  }
+
+  // Sheet names are limited to 31 characters from a restricted set and must be unique
+  private String sheetName(String title, Set<String> used) {
+    String base = WorkbookUtil.createSafeSheetName(title);
+    String name = base;
+    for (int i = 2; !used.add(name.toLowerCase(Locale.ROOT)); i++) {
+      String suffix = " (" + i + ")";
+      name = base.substring(0, Math.min(base.length(), 31 - suffix.length())) + suffix;
+    }
+    return name;
   }
 
   // ========== JSON GENERATION ==========
   public byte[] generateJson(Object data) {
+    ReportRenderEvent event = ReportRenderEvent.start("json");
     // Simple JSON serialization
     String json = convertToJson(data, 0);
-    return json.getBytes(StandardCharsets.UTF_8);
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    event.finish(data, bytes.length);
+    return bytes;
   }
 
   private String convertToJson(Object data, int indent) {
@@ -343,14 +563,16 @@ public class ReportGeneratorService {
       }
       json.append("\n").append(indentStr).append("}");
       return json.toString();
-    } else if (data instanceof List) {
+    } else if (data instanceof Iterable) {
+      // Lists, and report rows that are read as they are serialised
       json.append("[\n");
-      List<?> list = (List<?>) data;
-      for (int i = 0; i < list.size(); i++) {
+      int i = 0;
+      for (Object item : (Iterable<?>) data) {
         if (i > 0)
           json.append(",\n");
         json.append(indentStr).append("  ")
-            .append(convertToJson(list.get(i), indent + 1));
+            .append(convertToJson(item, indent + 1));
+        i++;
       }
       json.append("\n").append(indentStr).append("]");
       return json.toString();
@@ -369,6 +591,7 @@ public class ReportGeneratorService {
 
   // ========== PDF GENERATION WITH PDFBOX ==========
   public byte[] generatePdf(String title, Map<String, Object> data) throws IOException {
+    ReportRenderEvent event = ReportRenderEvent.start("pdf");
     try (PDDocument document = new PDDocument();
         ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
 
@@ -431,7 +654,9 @@ public class ReportGeneratorService {
       }
 
       document.save(baos);
-      return baos.toByteArray();
+      byte[] bytes = baos.toByteArray();
+      event.finish(data, bytes.length);
+      return bytes;
     }
   }
 
@@ -467,7 +692,7 @@ public class ReportGeneratorService {
     for (Map<String, Object> table : tables) {
       String tableTitle = (String) table.getOrDefault("title", "Data");
       List<String> headers = (List<String>) table.getOrDefault("headers", List.of());
-      List<List<Object>> rows = (List<List<Object>>) table.getOrDefault("rows", List.of());
+      Iterable<List<Object>> rows = (Iterable<List<Object>>) table.getOrDefault("rows", List.of());
 
       // Check if we need a new page
       if (yPosition < 150) {
@@ -511,8 +736,8 @@ public class ReportGeneratorService {
       contentStream.setFont(PDType1Font.HELVETICA, 9);
 
       // Draw rows
-      for (int rowIdx = 0; rowIdx < rows.size(); rowIdx++) {
-        List<Object> row = rows.get(rowIdx);
+      int rowIdx = 0;
+      for (List<Object> row : rows) {
 
         // Alternating row background
         if (rowIdx % 2 == 0) {
@@ -534,6 +759,7 @@ public class ReportGeneratorService {
           contentStream.endText();
         }
         yPosition -= rowHeight;
+        rowIdx++;
       }
 
       yPosition -= 20; // Space after table
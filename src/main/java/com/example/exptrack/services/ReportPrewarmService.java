@@ -0,0 +1,130 @@
+package com.example.exptrack.services;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.exptrack.dtos.ReportRequestDTO;
+import com.example.exptrack.repositories.UserRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Renders last month's income statement and expense report into the report cache for
+// every user who had transactions in it, early on the 1st, before the month-end
+// download spike. Renders run on a small pool of minimum-priority threads (a hint the
+// OS may ignore; the pool size is the real limit) behind a bounded queue. When the
+// queue is full the coordinating thread renders too, which throttles it. Cached
+// reports are keyed by day, so a run stops at midnight.
+@Service
+public class ReportPrewarmService {
+
+  private static final Logger log = LoggerFactory.getLogger(ReportPrewarmService.class);
+
+  private static final List<String> REPORT_TYPES = List.of("income-statement", "expense");
+
+  @Autowired
+  private TransactionService transactionService;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  private final List<String> formats;
+  private final ThreadPoolExecutor workers;
+  private final ExecutorService coordinator;
+
+  public ReportPrewarmService(
+      @Value("${report.prewarm-formats:pdf}") List<String> formats,
+      @Value("${report.prewarm-threads:2}") int threads,
+      @Value("${report.prewarm-queue-capacity:100}") int queueCapacity) {
+    this.formats = formats;
+    this.workers = new ThreadPoolExecutor(
+        threads, threads,
+        30, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(queueCapacity),
+        r -> lowPriorityThread(r, "report-prewarm"),
+        new ThreadPoolExecutor.CallerRunsPolicy());
+    this.workers.allowCoreThreadTimeOut(true);
+    // Keeps runs off the shared scheduler thread, and one run at a time
+    this.coordinator = Executors.newSingleThreadExecutor(r -> lowPriorityThread(r, "report-prewarm-run"));
+  }
+
+  @Scheduled(cron = "${report.prewarm-cron:0 30 0 1 * *}")
+  public void prewarmPreviousMonth() {
+    LocalDate today = LocalDate.now();
+    coordinator.execute(() -> prewarm(YearMonth.from(today).minusMonths(1), today));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    coordinator.shutdownNow();
+    workers.shutdownNow();
+  }
+
+  private void prewarm(YearMonth month, LocalDate day) {
+    long start = System.currentTimeMillis();
+    ZoneId zone = ZoneId.systemDefault();
+    List<Long> userIds = userRepository.findActiveUserIds(
+        Date.from(month.atDay(1).atStartOfDay(zone).toInstant()),
+        Date.from(month.plusMonths(1).atDay(1).atStartOfDay(zone).toInstant()));
+
+    AtomicInteger rendered = new AtomicInteger();
+    AtomicInteger skipped = new AtomicInteger();
+    AtomicInteger failed = new AtomicInteger();
+    Phaser pending = new Phaser(1);
+    users: for (Long userId : userIds) {
+      for (String type : REPORT_TYPES) {
+        for (String format : formats) {
+          if (!LocalDate.now().equals(day)) {
+            log.info("Report prewarm for {} stopped at midnight", month);
+            break users;
+          }
+          ReportRequestDTO request = new ReportRequestDTO(
+              type, month.atDay(1).toString(), month.atEndOfMonth().toString(), format);
+          pending.register();
+          workers.execute(() -> {
+            try {
+              // Queued renders past midnight would only fill the cache with dead keys
+              if (LocalDate.now().equals(day) && transactionService.prewarmReport(userId, request)) {
+                rendered.incrementAndGet();
+              } else {
+                skipped.incrementAndGet();
+              }
+            } catch (RuntimeException e) {
+              failed.incrementAndGet();
+              log.warn("Report prewarm failed for user {}: {} {}", userId, type, format, e);
+            } finally {
+              pending.arriveAndDeregister();
+            }
+          });
+        }
+      }
+    }
+    pending.arriveAndAwaitAdvance();
+    log.info("Report prewarm for {}: {} active users, {} reports rendered, {} cached already or skipped, "
+        + "{} failed, in {} ms", month, userIds.size(), rendered.get(), skipped.get(), failed.get(),
+        System.currentTimeMillis() - start);
+  }
+
+  private static Thread lowPriorityThread(Runnable r, String name) {
+    Thread t = new Thread(r, name);
+    t.setDaemon(true);
+    t.setPriority(Thread.MIN_PRIORITY);
+    return t;
+  }
+}
@@ -0,0 +1,207 @@
+package com.example.exptrack.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.exptrack.dtos.ReportRequestDTO;
+import com.example.exptrack.events.TransactionChangedEvent;
+import com.example.exptrack.models.ReportSnapshot;
+import com.example.exptrack.repositories.ReportSnapshotRepository;
+import com.example.exptrack.utils.ServiceMetrics;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import jakarta.annotation.PreDestroy;
+
+// Immutable report data for closed periods. A report whose range is exactly one
+// calendar month or year that ended before yesterday is computed once, on first
+// request, and from then on decoded from its stored snapshot. The day of grace
+// lets writes that started while the period was still open commit first.
+// Writes whose creationDate falls in a closed period invalidate its snapshots in
+// the writer's own transaction, bumping a version the next snapshot must match.
+// Snapshots are stored best-effort on a background thread once the reading
+// transaction has completed, so a request never waits for a second connection
+// while its own is still checked out.
+@Service
+public class ReportSnapshotService {
+
+  private static final Logger log = LoggerFactory.getLogger(ReportSnapshotService.class);
+
+  // Aggregate report types of prepareReportData. "all" (and its alias "transactions")
+  // lists every row, read only while it is rendered; a snapshot would hold them all
+  private static final List<String> TYPES = List.of("expense", "income-statement");
+  private static final TypeReference<Map<String, Object>> DATA = new TypeReference<>() {
+  };
+
+  @Autowired
+  private ReportSnapshotRepository snapshotRepository;
+
+  @Autowired
+  private ServiceMetrics metrics;
+
+  private final ObjectMapper smile = new ObjectMapper(new SmileFactory());
+  private final TransactionTemplate storeTransaction;
+  private final ThreadPoolExecutor storeWorker;
+
+  private record Period(LocalDate start, LocalDate end) {
+  }
+
+  public ReportSnapshotService(PlatformTransactionManager transactionManager,
+      @Value("${report.snapshot-store-queue-capacity:100}") int queueCapacity) {
+    // Reports are read in read-only (possibly replica) transactions; the snapshot is
+    // written on the primary in a short transaction of its own
+    this.storeTransaction = new TransactionTemplate(transactionManager);
+    this.storeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    // A full queue drops the store; the next request for the period computes again
+    this.storeWorker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(queueCapacity), r -> {
+          Thread t = new Thread(r, "report-snapshots");
+          t.setDaemon(true);
+          return t;
+        });
+  }
+
+  public Map<String, Object> getOrCompute(Long userId, ReportRequestDTO request,
+      Supplier<Map<String, Object>> compute) {
+    String type = snapshotType(request.type());
+    Period period = closedPeriod(request.startDate(), request.endDate());
+    if (type == null || period == null) {
+      return compute.get();
+    }
+
+    Optional<ReportSnapshot> snapshot = snapshotRepository.findByUserIdAndReportTypeAndPeriodStartAndPeriodEnd(
+        userId, type, period.start(), period.end());
+    if (snapshot.isPresent() && snapshot.get().getData() != null) {
+      metrics.recordReportSnapshot(type, "hit");
+      return decode(snapshot.get().getData());
+    }
+
+    // Read before computing: an invalidation committed after this point changes the
+    // version, and the stale result below is then dropped instead of stored
+    Long version = snapshot.map(ReportSnapshot::getVersion).orElse(null);
+    Map<String, Object> data = compute.get();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          storeLater(userId, type, period, version, data);
+        }
+      });
+    } else {
+      storeLater(userId, type, period, version, data);
+    }
+    return data;
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void onTransactionChanged(TransactionChangedEvent event) {
+    Date creationDate = event.transaction().getCreationDate();
+    if (creationDate == null) {
+      return;
+    }
+    LocalDate day = creationDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    LocalDate today = LocalDate.now();
+    for (Period period : List.of(
+        new Period(day.withDayOfMonth(1), day.withDayOfMonth(day.lengthOfMonth())),
+        new Period(day.withDayOfYear(1), day.withDayOfYear(day.lengthOfYear())))) {
+      // Open periods are never snapshotted; new transactions always land in one
+      if (period.end().isBefore(today)) {
+        for (String type : TYPES) {
+          snapshotRepository.invalidate(event.userId(), type, period.start(), period.end());
+        }
+      }
+    }
+  }
+
+  private void storeLater(Long userId, String type, Period period, Long version, Map<String, Object> data) {
+    try {
+      storeWorker.execute(() -> metrics.recordReportSnapshot(type,
+          store(userId, type, period, version, data) ? "stored" : "miss"));
+    } catch (RejectedExecutionException e) {
+      metrics.recordReportSnapshot(type, "dropped");
+    }
+  }
+
+  private boolean store(Long userId, String type, Period period, Long version, Map<String, Object> data) {
+    try {
+      byte[] encoded = smile.writeValueAsBytes(data);
+      Integer stored = storeTransaction.execute(status -> version == null
+          ? snapshotRepository.insertIfAbsent(userId, type, period.start(), period.end(), encoded, new Date())
+          : snapshotRepository.updateIfVersion(userId, type, period.start(), period.end(), version, encoded,
+              new Date()));
+      return stored != null && stored > 0;
+    } catch (IOException | DataAccessException | TransactionException e) {
+      // The report was still served; the next request tries again
+      log.warn("Could not store report snapshot for user {}: {}", userId, e.getMessage());
+      return false;
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    storeWorker.shutdownNow();
+  }
+
+  private Map<String, Object> decode(byte[] data) {
+    try {
+      return smile.readValue(data, DATA);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Corrupt report snapshot", e);
+    }
+  }
+
+  private static String snapshotType(String type) {
+    if (type == null) {
+      return null;
+    }
+    String normalized = type.toLowerCase();
+    return TYPES.contains(normalized) ? normalized : null;
+  }
+
+  // The calendar month or year exactly covered by [startDate, endDate], if it ended
+  // before yesterday; null for any other range
+  private static Period closedPeriod(String startDate, String endDate) {
+    LocalDate start;
+    LocalDate end;
+    try {
+      start = LocalDate.parse(startDate);
+      end = LocalDate.parse(endDate);
+    } catch (DateTimeParseException | NullPointerException e) {
+      return null;
+    }
+    boolean month = start.getDayOfMonth() == 1 && end.equals(start.withDayOfMonth(start.lengthOfMonth()));
+    boolean year = start.getDayOfYear() == 1 && end.equals(start.withDayOfYear(start.lengthOfYear()));
+    if (!(month || year) || !end.plusDays(1).isBefore(LocalDate.now())) {
+      return null;
+    }
+    return new Period(start, end);
+  }
+}
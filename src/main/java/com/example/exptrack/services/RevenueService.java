@@ -19,7 +19,7 @@ public class RevenueService {
   @Autowired
   private UserService userService;
 
-  @Transactional
+  @Transactional(readOnly = true)
   public List<Revenue> getRevenuesByUserId(Long userId) {
     return revenueRep.findByUser(userService.findById(userId));
   }
@@ -1,23 +1,51 @@
 package com.example.exptrack.services;
 
 import com.example.exptrack.dtos.*;
+import com.example.exptrack.events.TransactionChangedEvent;
+import com.example.exptrack.jfr.ReportDataPreparedEvent;
+import com.example.exptrack.jfr.ReportGenerationEvent;
+import com.example.exptrack.jfr.ReportRenderEvent;
 import com.example.exptrack.models.Expense;
 import com.example.exptrack.models.Revenue;
+import com.example.exptrack.models.TransactionTombstone;
 import com.example.exptrack.models.User;
 import com.example.exptrack.repositories.ExpenseRepository;
 import com.example.exptrack.repositories.RevenueRepository;
+import com.example.exptrack.repositories.TransactionTombstoneRepository;
 import com.example.exptrack.repositories.UserRepository;
+import com.example.exptrack.utils.CsvWriter;
+import com.example.exptrack.utils.FeedWriter;
+import com.example.exptrack.utils.ReportRows;
+import com.example.exptrack.utils.ServiceMetrics;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.Date;
 
@@ -25,16 +53,79 @@ import java.util.Date;
 @Transactional
 public class TransactionService {
 
+  private static final Logger log = LoggerFactory.getLogger(TransactionService.class);
+
   @Autowired
   private ExpenseRepository expenseRepository;
   @Autowired
   private RevenueRepository revenueRepository;
   @Autowired
   private UserRepository userRepository;
+  @Autowired
+  private TransactionTombstoneRepository tombstoneRepository;
 
   @Autowired
   private ReportGeneratorService reportGeneratorService;
 
+  @Autowired
+  private TrendAnalysisService trendAnalysisService;
+
+  @Autowired
+  private ReportSnapshotService reportSnapshotService;
+
+  @Autowired
+  private ReportCacheService reportCacheService;
+
+  @Autowired
+  private ReportBundleService reportBundleService;
+
+  @Autowired
+  private BudgetService budgetService;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  @Autowired
+  private ServiceMetrics metrics;
+
+  @Autowired
+  private FeedWriter feedWriter;
+
+  // Content type and file extension per report format; unknown formats render as PDF
+  private static final Map<String, String[]> REPORT_FORMATS = Map.of(
+      "csv", new String[] { "text/csv", "csv" },
+      "html", new String[] { "text/html", "html" },
+      "markdown", new String[] { "text/markdown", "md" },
+      "json", new String[] { "application/json", "json" },
+      "pdf", new String[] { "application/pdf", "pdf" },
+      "xlsx", new String[] { "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx" });
+
+  private static final List<String> EXPORT_CSV_HEADERS = List.of(
+      "id", "date", "type", "category", "description", "amount", "lastModified");
+  private static final int EXPORT_BATCH_SIZE = 1000;
+
+  // Set on the placeholder data prepareReportData returns when the real data could not
+  // be prepared; that report is still served, but never cached
+  private static final String REPORT_FAILED = "reportFailed";
+
+  // Merge order of expenses and revenues: the repositories' (creationDate, id) DESC,
+  // then type, since ids of the two tables overlap
+  private static final Comparator<TransactionDTO> NEWEST_FIRST = Comparator
+      .comparing(TransactionDTO::getCreationDate)
+      .thenComparing(TransactionDTO::getId)
+      .thenComparing(TransactionDTO::getType)
+      .reversed();
+
+  // Delta sync: how far back each token reaches to cover writes that committed after
+  // the previous sync read past their lastModified, the largest delta served before
+  // asking for a full resync, and how long deletions are remembered
+  @Value("${sync.commit-window-ms:10000}")
+  private long syncCommitWindowMillis;
+  @Value("${sync.max-changes:5000}")
+  private int syncMaxChanges;
+  @Value("${sync.tombstone-retention-days:90}")
+  private int tombstoneRetentionDays;
+
   // Helper method to get date range based on timeFrame
   private Map<String, Date> getDateRange(String timeFrame) {
     LocalDate now = LocalDate.now();
@@ -68,52 +159,34 @@ public class TransactionService {
   }
 
   // Get transactions with filtering (combined expenses and revenues)
+  @Transactional(readOnly = true)
   public List<TransactionDTO> getTransactions(Long userId, String timeFrame, int limit, int page) {
     Map<String, Date> dateRange = getDateRange(timeFrame);
+    int size = Math.max(1, limit);
+    long headRows = Math.max(1, page) * (long) size;
+    if (headRows > Integer.MAX_VALUE) {
+      return Collections.emptyList(); // Past any table the repositories can page through
+    }
 
-    // Get expenses and revenues
-    List<Expense> expenses = expenseRepository.findByUserIdAndCreationDateBetweenOrderByCreationDateDesc(
-        userId, dateRange.get("start"), dateRange.get("end"));
-    List<Revenue> revenues = revenueRepository.findByUserIdAndCreationDateBetweenOrderByCreationDateDesc(
-        userId, dateRange.get("start"), dateRange.get("end"));
+    // Each table's newest page * limit rows are the only ones page `page` of the
+    // merged list can contain
+    PageRequest head = PageRequest.of(0, (int) headRows);
+    List<TransactionRowDTO> expenses = expenseRepository.findRowsByUserAndDateRange(
+        userId, dateRange.get("start"), dateRange.get("end"), head);
+    List<TransactionRowDTO> revenues = revenueRepository.findRowsByUserAndDateRange(
+        userId, dateRange.get("start"), dateRange.get("end"), head);
 
     // Combine and sort by creation date
-    List<TransactionDTO> allTransactions = new ArrayList<>();
-
-    // Convert expenses to DTOs
-    expenses.forEach(expense -> {
-      TransactionDTO dto = new TransactionDTO();
-      dto.setId(expense.getId());
-      dto.setAmount(expense.getAmount());
-      dto.setType("expense");
-      dto.setCategory(expense.getCategory());
-      dto.setDescription("Expense: " + expense.getCategory()); // You might want to add description field
-      dto.setCreationDate(expense.getCreationDate());
-      dto.setLastModified(expense.getLastModified());
-      dto.setTransactionType("expense");
-      allTransactions.add(dto);
-    });
-
-    // Convert revenues to DTOs
-    revenues.forEach(revenue -> {
-      TransactionDTO dto = new TransactionDTO();
-      dto.setId(revenue.getId());
-      dto.setAmount(revenue.getAmount());
-      dto.setType("revenue");
-      dto.setSource(revenue.getSource());
-      dto.setDescription("Revenue: " + revenue.getSource()); // You might want to add description field
-      dto.setCreationDate(revenue.getCreationDate());
-      dto.setLastModified(revenue.getLastModified());
-      dto.setTransactionType("revenue");
-      allTransactions.add(dto);
-    });
+    List<TransactionDTO> allTransactions = new ArrayList<>(expenses.size() + revenues.size());
+    expenses.forEach(expense -> allTransactions.add(convertExpenseRowToDTO(expense)));
+    revenues.forEach(revenue -> allTransactions.add(convertRevenueRowToDTO(revenue)));
 
     // Sort by creation date (most recent first)
-    allTransactions.sort((a, b) -> b.getCreationDate().compareTo(a.getCreationDate()));
+    allTransactions.sort(NEWEST_FIRST);
 
     // Apply pagination
-    int start = (page - 1) * limit;
-    int end = Math.min(start + limit, allTransactions.size());
+    int start = (int) headRows - size;
+    int end = Math.min(start + size, allTransactions.size());
 
     if (start >= allTransactions.size()) {
       return Collections.emptyList();
@@ -123,6 +196,7 @@ public class TransactionService {
   }
 
   // Get transaction summary
+  @Transactional(readOnly = true)
   public TransactionSummaryDTO getTransactionSummary(Long userId, String timeFrame) {
     Map<String, Date> dateRange = getDateRange(timeFrame);
 
@@ -151,6 +225,7 @@ public class TransactionService {
   }
 
   // Get category breakdown (combines expense categories and revenue sources)
+  @Transactional(readOnly = true)
   public List<CategorySummaryDTO> getCategorySummary(Long userId, String timeFrame) {
     Map<String, Date> dateRange = getDateRange(timeFrame);
 
@@ -194,10 +269,11 @@ public class TransactionService {
   }
 
   // Get detailed category statistics
-  public Map<String, Object> getCategoryStats(Long userId, String timeFrame) {
+  @Transactional(readOnly = true)
+  public CategoryStatsDTO getCategoryStats(Long userId, String timeFrame) {
     System.out.println("DEBUG: Starting TransactionService.getCategoryStats for user " + userId);
     try {
-      Map<String, Date> dateRange = getDateRange(timeFrame);
+      // The summary queries already count transactions per category
       List<CategorySummaryDTO> allCategories = getCategorySummary(userId, timeFrame);
 
       // Separate expenses and revenues
@@ -209,52 +285,12 @@ public class TransactionService {
           .filter(c -> "revenue".equals(c.getType()))
           .collect(Collectors.toList());
 
-      // Get expense category details with transaction counts
-      List<Map<String, Object>> expenseCategoryDetails = new ArrayList<>();
-      for (CategorySummaryDTO category : expenseCategories) {
-        Map<String, Object> detail = new HashMap<>();
-        detail.put("category", category.getName());
-        detail.put("type", "expense");
-        detail.put("totalAmount", category.getAmount());
-
-        // Get transaction count for this category
-        List<Expense> expenses = expenseRepository.findByUserIdAndCreationDateBetweenOrderByCreationDateDesc(
-            userId, dateRange.get("start"), dateRange.get("end"));
-        long categoryCount = expenses.stream()
-            .filter(e -> category.getName().equals(e.getCategory()))
-            .count();
-
-        detail.put("transactionCount", categoryCount);
-        detail.put("averageAmount", categoryCount > 0 ? category.getAmount() / categoryCount : 0);
-        detail.put("percentage", category.getPercentage());
-        expenseCategoryDetails.add(detail);
-      }
-
-      // Get revenue category details with transaction counts
-      List<Map<String, Object>> revenueCategoryDetails = new ArrayList<>();
-      for (CategorySummaryDTO category : revenueCategories) {
-        Map<String, Object> detail = new HashMap<>();
-        detail.put("category", category.getName());
-        detail.put("type", "revenue");
-        detail.put("totalAmount", category.getAmount());
-
-        // Get transaction count for this source
-        List<Revenue> revenues = revenueRepository.findByUserIdAndCreationDateBetweenOrderByCreationDateDesc(
-            userId, dateRange.get("start"), dateRange.get("end"));
-        long categoryCount = revenues.stream()
-            .filter(r -> category.getName().equals(r.getSource()))
-            .count();
-
-        detail.put("transactionCount", categoryCount);
-        detail.put("averageAmount", categoryCount > 0 ? category.getAmount() / categoryCount : 0);
-        detail.put("percentage", category.getPercentage());
-        revenueCategoryDetails.add(detail);
-      }
-
-      Map<String, Object> stats = new HashMap<>();
-      stats.put("expenseCategories", expenseCategoryDetails);
-      stats.put("revenueCategories", revenueCategoryDetails);
-      stats.put("timeFrame", timeFrame);
+      List<CategoryStatsDTO.CategoryDetail> expenseCategoryDetails = expenseCategories.stream()
+          .map(this::convertToCategoryDetail)
+          .toList();
+      List<CategoryStatsDTO.CategoryDetail> revenueCategoryDetails = revenueCategories.stream()
+          .map(this::convertToCategoryDetail)
+          .toList();
 
       // Calculate summary
       Double totalExpenses = expenseCategories.stream()
@@ -280,16 +316,14 @@ public class TransactionService {
           .map(CategorySummaryDTO::getName)
           .orElse("None");
 
-      Map<String, Object> summary = new HashMap<>();
-      summary.put("totalExpenses", totalExpenses);
-      summary.put("totalRevenue", totalRevenue);
-      summary.put("averageTransaction", Math.round(averageTransaction * 100.0) / 100.0);
-      summary.put("mostSpentCategory", mostSpentCategory);
-      summary.put("mostRevenueCategory", mostRevenueCategory);
-
-      stats.put("summary", summary);
+      CategoryStatsDTO.Summary summary = new CategoryStatsDTO.Summary(
+          totalExpenses,
+          totalRevenue,
+          Math.round(averageTransaction * 100.0) / 100.0,
+          mostSpentCategory,
+          mostRevenueCategory);
 
-      return stats;
+      return new CategoryStatsDTO(expenseCategoryDetails, revenueCategoryDetails, timeFrame, summary);
     } catch (Exception e) {
       System.err.println("ERROR in getCategoryStats: " + e.getMessage());
       e.printStackTrace();
@@ -297,6 +331,17 @@ public class TransactionService {
     }
   }
 
+  private CategoryStatsDTO.CategoryDetail convertToCategoryDetail(CategorySummaryDTO category) {
+    long count = category.getCount() != null ? category.getCount() : 0;
+    return new CategoryStatsDTO.CategoryDetail(
+        category.getName(),
+        category.getType(),
+        category.getAmount(),
+        count,
+        count > 0 ? category.getAmount() / count : 0.0,
+        category.getPercentage());
+  }
+
   // Add expense
   public TransactionDTO addExpense(Long userId, TransactionDTO transactionDTO) {
     User user = userRepository.findById(userId)
@@ -312,7 +357,9 @@ public class TransactionService {
 
     Expense saved = expenseRepository.save(expense);
 
-    return convertExpenseToDTO(saved);
+    TransactionDTO created = convertExpenseToDTO(saved);
+    eventPublisher.publishEvent(TransactionChangedEvent.created(userId, created));
+    return created;
   }
 
   // Add revenue
@@ -330,7 +377,9 @@ public class TransactionService {
 
     Revenue saved = revenueRepository.save(revenue);
 
-    return convertRevenueToDTO(saved);
+    TransactionDTO created = convertRevenueToDTO(saved);
+    eventPublisher.publishEvent(TransactionChangedEvent.created(userId, created));
+    return created;
   }
 
   // Add transaction (automatically determines type based on DTO)
@@ -348,6 +397,7 @@ public class TransactionService {
   public TransactionDTO updateExpense(Long expenseId, TransactionDTO transactionDTO) {
     Expense expense = expenseRepository.findById(expenseId)
         .orElseThrow(() -> new RuntimeException("Expense not found"));
+    TransactionDTO previous = convertExpenseToDTO(expense);
 
     if (transactionDTO.getAmount() != null) {
       expense.setAmount(transactionDTO.getAmount());
@@ -358,13 +408,17 @@ public class TransactionService {
     expense.setLastModified(new Date());
 
     Expense updated = expenseRepository.save(expense);
-    return convertExpenseToDTO(updated);
+    TransactionDTO result = convertExpenseToDTO(updated);
+    eventPublisher.publishEvent(
+        TransactionChangedEvent.updated(expense.getUser().getId(), result, previous));
+    return result;
   }
 
   // Update revenue
   public TransactionDTO updateRevenue(Long revenueId, TransactionDTO transactionDTO) {
     Revenue revenue = revenueRepository.findById(revenueId)
         .orElseThrow(() -> new RuntimeException("Revenue not found"));
+    TransactionDTO previous = convertRevenueToDTO(revenue);
 
     if (transactionDTO.getAmount() != null) {
       revenue.setAmount(transactionDTO.getAmount());
@@ -375,7 +429,10 @@ public class TransactionService {
     revenue.setLastModified(new Date());
 
     Revenue updated = revenueRepository.save(revenue);
-    return convertRevenueToDTO(updated);
+    TransactionDTO result = convertRevenueToDTO(updated);
+    eventPublisher.publishEvent(
+        TransactionChangedEvent.updated(revenue.getUser().getId(), result, previous));
+    return result;
   }
 
   // Update transaction (automatically determines type)
@@ -391,12 +448,26 @@ public class TransactionService {
 
   // Delete expense
   public void deleteExpense(Long expenseId) {
-    expenseRepository.deleteById(expenseId);
+    expenseRepository.findById(expenseId).ifPresent(expense -> {
+      TransactionDTO removed = convertExpenseToDTO(expense);
+      expenseRepository.delete(expense);
+      tombstoneRepository.save(
+          new TransactionTombstone(expense.getUser().getId(), expense.getId(), "expense", new Date(),
+              expense.getCreationDate()));
+      eventPublisher.publishEvent(TransactionChangedEvent.deleted(expense.getUser().getId(), removed));
+    });
   }
 
   // Delete revenue
   public void deleteRevenue(Long revenueId) {
-    revenueRepository.deleteById(revenueId);
+    revenueRepository.findById(revenueId).ifPresent(revenue -> {
+      TransactionDTO removed = convertRevenueToDTO(revenue);
+      revenueRepository.delete(revenue);
+      tombstoneRepository.save(
+          new TransactionTombstone(revenue.getUser().getId(), revenue.getId(), "revenue", new Date(),
+              revenue.getCreationDate()));
+      eventPublisher.publishEvent(TransactionChangedEvent.deleted(revenue.getUser().getId(), removed));
+    });
   }
 
   // Delete transaction
@@ -437,232 +508,268 @@ public class TransactionService {
     return dto;
   }
 
-  // Get recent transactions (for dashboard)
-  public List<TransactionDTO> getRecentTransactions(Long userId, int limit) {
-    List<Expense> recentExpenses = expenseRepository.findByUserIdOrderByCreationDateDesc(userId);
-    List<Revenue> recentRevenues = revenueRepository.findByUserIdOrderByCreationDateDesc(userId);
+  private TransactionDTO convertExpenseRowToDTO(TransactionRowDTO row) {
+    return new TransactionDTO(row.id(), row.amount(), "expense", row.name(), null, "Expense: " + row.name(),
+        row.creationDate(), row.lastModified(), "expense");
+  }
 
-    List<TransactionDTO> allTransactions = new ArrayList<>();
+  private TransactionDTO convertRevenueRowToDTO(TransactionRowDTO row) {
+    return new TransactionDTO(row.id(), row.amount(), "revenue", null, row.name(), "Revenue: " + row.name(),
+        row.creationDate(), row.lastModified(), "revenue");
+  }
 
-    // Convert recent expenses
-    recentExpenses.stream().limit(limit).forEach(expense -> {
-      allTransactions.add(convertExpenseToDTO(expense));
-    });
+  // Get recent transactions (for dashboard)
+  @Transactional(readOnly = true)
+  public List<TransactionDTO> getRecentTransactions(Long userId, int limit) {
+    // Only the newest `limit` rows of each table can end up in the result
+    PageRequest newest = PageRequest.of(0, Math.max(1, limit));
+    List<TransactionRowDTO> recentExpenses = expenseRepository.findRecentRowsByUser(userId, newest);
+    List<TransactionRowDTO> recentRevenues = revenueRepository.findRecentRowsByUser(userId, newest);
 
-    // Convert recent revenues
-    recentRevenues.stream().limit(limit).forEach(revenue -> {
-      allTransactions.add(convertRevenueToDTO(revenue));
-    });
+    List<TransactionDTO> allTransactions = new ArrayList<>(recentExpenses.size() + recentRevenues.size());
+    recentExpenses.forEach(expense -> allTransactions.add(convertExpenseRowToDTO(expense)));
+    recentRevenues.forEach(revenue -> allTransactions.add(convertRevenueRowToDTO(revenue)));
 
     // Sort by creation date and limit
     return allTransactions.stream()
-        .sorted((a, b) -> b.getCreationDate().compareTo(a.getCreationDate()))
+        .sorted(NEWEST_FIRST)
         .limit(limit)
         .collect(Collectors.toList());
   }
 
-  public List<TrendAnalysisDTO> getTrendAnalysis(Long userId, String timeFrame) {
-    Map<String, Date> dateRange = getDateRange(timeFrame.equals("all") ? "year" : timeFrame);
-    List<TransactionDTO> transactions = getTransactions(userId, timeFrame, 1000, 1);
-
-    // Group by period based on timeFrame
-    Map<String, List<TransactionDTO>> grouped = new TreeMap<>();
-
-    DateTimeFormatter formatter;
-    switch (timeFrame.toLowerCase()) {
-      case "monthly":
-        formatter = DateTimeFormatter.ofPattern("yyyy-MM");
-        break;
-      case "quarterly":
-        formatter = DateTimeFormatter.ofPattern("yyyy-QQQ");
-        break;
-      case "yearly":
-        formatter = DateTimeFormatter.ofPattern("yyyy");
-        break;
-      default:
-        formatter = DateTimeFormatter.ofPattern("yyyy-MM");
+  // Everything created, updated or deleted since the client's sync token. Runs on the
+  // primary (not readOnly): a lagging replica could hide writes the returned token
+  // already claims to cover, and the client would never see them.
+  public SyncDTO syncTransactions(Long userId, String token) {
+    long now = System.currentTimeMillis();
+    // Taken before reading, so anything committing during this call is in the next delta
+    String nextToken = encodeSyncToken(now - syncCommitWindowMillis);
+    Long since = decodeSyncToken(token);
+    if (since == null || since < now - tombstoneRetentionDays * 86_400_000L) {
+      // New client, unreadable token, or deletions since then may already be purged
+      return new SyncDTO(List.of(), List.of(), nextToken, true);
     }
 
-    // Group transactions
-    for (TransactionDTO t : transactions) {
-      LocalDate date = t.getCreationDate().toInstant()
-          .atZone(ZoneId.systemDefault())
-          .toLocalDate();
-      String period = date.format(formatter);
-      grouped.computeIfAbsent(period, k -> new ArrayList<>()).add(t);
+    Date sinceDate = new Date(since);
+    PageRequest overflow = PageRequest.of(0, syncMaxChanges + 1);
+    List<TransactionRowDTO> expenses = expenseRepository.findRowsModifiedSince(userId, sinceDate, overflow);
+    List<TransactionRowDTO> revenues = revenueRepository.findRowsModifiedSince(userId, sinceDate, overflow);
+    List<SyncDTO.Deletion> deletions = tombstoneRepository.findDeletionsSince(userId, sinceDate, overflow);
+    if (expenses.size() + revenues.size() + deletions.size() > syncMaxChanges) {
+      // Cheaper for both sides to re-download than to replay a long delta
+      return new SyncDTO(List.of(), List.of(), nextToken, true);
     }
 
-    // Calculate trend analysis
-    List<TrendAnalysisDTO> trendAnalysis = new ArrayList<>();
-    Double previousAmount = null;
-
-    for (Map.Entry<String, List<TransactionDTO>> entry : grouped.entrySet()) {
-      Double totalAmount = entry.getValue().stream()
-          .mapToDouble(TransactionDTO::getAmount)
-          .sum();
-
-      Double percentageChange = 0.0;
-      if (previousAmount != null && previousAmount > 0) {
-        percentageChange = ((totalAmount - previousAmount) / previousAmount) * 100;
-      }
-
-      String trend;
-      if (percentageChange > 5)
-        trend = "up";
-      else if (percentageChange < -5)
-        trend = "down";
-      else
-        trend = "stable";
-
-      Double forecast = totalAmount * 1.1; // Simple 10% growth forecast
-
-      trendAnalysis.add(new TrendAnalysisDTO(
-          entry.getKey(),
-          totalAmount,
-          percentageChange,
-          trend,
-          forecast));
+    List<TransactionDTO> changes = new ArrayList<>(expenses.size() + revenues.size());
+    expenses.forEach(expense -> changes.add(convertExpenseRowToDTO(expense)));
+    revenues.forEach(revenue -> changes.add(convertRevenueRowToDTO(revenue)));
+    changes.sort(Comparator.comparing(TransactionDTO::getLastModified));
+    return new SyncDTO(changes, deletions, nextToken, false);
+  }
 
-      previousAmount = totalAmount;
+  @Scheduled(fixedDelayString = "${sync.tombstone-purge-interval-ms:86400000}")
+  public void purgeTombstones() {
+    Date before = new Date(System.currentTimeMillis() - tombstoneRetentionDays * 86_400_000L);
+    int purged = tombstoneRepository.deleteOlderThan(before);
+    if (purged > 0) {
+      log.info("Purged {} transaction tombstones older than {}", purged, before);
     }
+  }
 
-    return trendAnalysis;
+  // Tokens are opaque to clients; today they carry the server time the next delta starts from
+  private static String encodeSyncToken(long millis) {
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(Long.toString(millis).getBytes(StandardCharsets.US_ASCII));
   }
 
-  public List<ExpenseReportDTO> getExpenseReport(Long userId, String startDate, String endDate) {
+  private static Long decodeSyncToken(String token) {
+    if (token == null || token.isBlank()) {
+      return null;
+    }
     try {
-      // Parse dates
-      LocalDate start = LocalDate.parse(startDate);
-      LocalDate end = LocalDate.parse(endDate);
-
-      Date startDateObj = Date.from(start.atStartOfDay(ZoneId.systemDefault()).toInstant());
-      Date endDateObj = Date.from(end.atStartOfDay(ZoneId.systemDefault()).toInstant());
-
-      // ADD THIS LOGGING
-      System.out.println("DEBUG: Querying expenses from " + startDateObj + " to " + endDateObj);
-
-      List<Expense> expenses = expenseRepository.findByUserIdAndCreationDateBetween(
-          userId,
-          Date.from(start.atStartOfDay(ZoneId.systemDefault()).toInstant()),
-          Date.from(end.atStartOfDay(ZoneId.systemDefault()).toInstant()));
-
-      System.out.println("DEBUG: Found " + expenses.size() + " expenses");
-      // Group by category
-      Map<String, List<Expense>> groupedByCategory = expenses.stream()
-          .collect(Collectors.groupingBy(Expense::getCategory));
-
-      Double totalExpenses = expenses.stream()
-          .mapToDouble(Expense::getAmount)
-          .sum();
-
-      List<ExpenseReportDTO> report = new ArrayList<>();
-
-      for (Map.Entry<String, List<Expense>> entry : groupedByCategory.entrySet()) {
-        String category = entry.getKey() != null ? entry.getKey() : "Uncategorized";
-        List<Expense> categoryExpenses = entry.getValue();
-
-        Double categoryTotal = categoryExpenses.stream()
-            .mapToDouble(Expense::getAmount)
-            .sum();
-
-        Double percentage = totalExpenses > 0 ? (categoryTotal / totalExpenses) * 100 : 0;
-
-        // Monthly breakdown
-        Map<String, List<Expense>> monthlyGrouped = categoryExpenses.stream()
-            .collect(Collectors.groupingBy(e -> e.getCreationDate().toInstant()
-                .atZone(ZoneId.systemDefault())
-                .toLocalDate()
-                .format(DateTimeFormatter.ofPattern("yyyy-MM"))));
+      return Long.parseLong(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII));
+    } catch (IllegalArgumentException e) { // Also covers NumberFormatException
+      return null;
+    }
+  }
 
-        List<MonthlyBreakdownDTO> monthlyBreakdown = new ArrayList<>();
-        for (Map.Entry<String, List<Expense>> monthEntry : monthlyGrouped.entrySet()) {
-          Double monthTotal = monthEntry.getValue().stream()
-              .mapToDouble(Expense::getAmount)
-              .sum();
-          Double monthPercentage = categoryTotal > 0 ? (monthTotal / categoryTotal) * 100 : 0;
+  // Full history for bulk sync, encoded as it is read: both tables are walked in keyset
+  // batches and merged newest first, so memory stays flat whatever the history size.
+  // No transaction spans the download; each batch is a short read-only repository
+  // call, so a slow client never holds a pooled connection while it reads.
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public void exportTransactions(Long userId, MediaType mediaType, OutputStream out) throws IOException {
+    Iterator<TransactionDTO> merged = mergeNewestFirst(
+        keysetBatches(
+            page -> expenseRepository.findRecentRowsByUser(userId, page),
+            (last, page) -> expenseRepository.findRowsByUserBefore(userId, last.creationDate(), last.id(), page),
+            this::convertExpenseRowToDTO),
+        keysetBatches(
+            page -> revenueRepository.findRecentRowsByUser(userId, page),
+            (last, page) -> revenueRepository.findRowsByUserBefore(userId, last.creationDate(), last.id(), page),
+            this::convertRevenueRowToDTO));
+    if (mediaType.isCompatibleWith(FeedWriter.CSV)) {
+      writeTransactionsCsv(merged, out);
+    } else {
+      feedWriter.writeArray(mediaType, TransactionDTO.class, merged, out);
+    }
+  }
 
-          monthlyBreakdown.add(new MonthlyBreakdownDTO(
-              monthEntry.getKey(),
-              monthTotal,
-              monthPercentage));
+  // One table newest first, EXPORT_BATCH_SIZE rows per query, each batch continuing
+  // after the (creationDate, id) of the last row of the previous one
+  private static Iterator<TransactionDTO> keysetBatches(
+      Function<Pageable, List<TransactionRowDTO>> first,
+      BiFunction<TransactionRowDTO, Pageable, List<TransactionRowDTO>> after,
+      Function<TransactionRowDTO, TransactionDTO> convert) {
+    Pageable batch = PageRequest.of(0, EXPORT_BATCH_SIZE);
+    return new Iterator<>() {
+      private Iterator<TransactionRowDTO> rows = Collections.emptyIterator();
+      private TransactionRowDTO last;
+      private boolean exhausted;
+
+      @Override
+      public boolean hasNext() {
+        if (!rows.hasNext() && !exhausted) {
+          List<TransactionRowDTO> next = last == null ? first.apply(batch) : after.apply(last, batch);
+          exhausted = next.size() < EXPORT_BATCH_SIZE;
+          rows = next.iterator();
         }
-
-        report.add(new ExpenseReportDTO(
-            category,
-            categoryTotal,
-            (long) categoryExpenses.size(),
-            categoryExpenses.size() > 0 ? categoryTotal / categoryExpenses.size() : 0,
-            percentage,
-            monthlyBreakdown));
+        return rows.hasNext();
       }
 
-      return report;
+      @Override
+      public TransactionDTO next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        last = rows.next();
+        return convert.apply(last);
+      }
+    };
+  }
 
-    } catch (Exception e) {
-      e.printStackTrace();
-      throw e;
+  private static void writeTransactionsCsv(Iterator<TransactionDTO> transactions, OutputStream out) throws IOException {
+    CsvWriter csv = new CsvWriter(out);
+    for (String header : EXPORT_CSV_HEADERS) {
+      csv.field(header);
+    }
+    csv.endRow();
+    while (transactions.hasNext()) {
+      TransactionDTO transaction = transactions.next();
+      csv.field(transaction.getId());
+      csv.timestamp(transaction.getCreationDate());
+      csv.field(transaction.getType());
+      csv.field(transaction.getType().equals("revenue") ? transaction.getSource() : transaction.getCategory());
+      csv.field(transaction.getDescription());
+      csv.amount(transaction.getAmount());
+      csv.timestamp(transaction.getLastModified());
+      csv.endRow();
     }
+    csv.flush();
   }
 
-  public IncomeStatementDTO getIncomeStatement(Long userId, String startDate, String endDate) {
-    LocalDate start = LocalDate.parse(startDate);
-    LocalDate end = LocalDate.parse(endDate);
-
-    Date startDateObj = Date.from(start.atStartOfDay(ZoneId.systemDefault()).toInstant());
-    Date endDateObj = Date.from(end.atStartOfDay(ZoneId.systemDefault()).toInstant());
-
-    // Get expenses
-    List<Expense> expenses = expenseRepository.findByUserIdAndCreationDateBetween(
-        userId, startDateObj, endDateObj);
+  private static Iterator<TransactionDTO> mergeNewestFirst(Iterator<TransactionDTO> a, Iterator<TransactionDTO> b) {
+    return new Iterator<>() {
+      private TransactionDTO nextA = a.hasNext() ? a.next() : null;
+      private TransactionDTO nextB = b.hasNext() ? b.next() : null;
 
-    // Get revenues
-    List<Revenue> revenues = revenueRepository.findByUserIdAndCreationDateBetween(
-        userId, startDateObj, endDateObj);
+      @Override
+      public boolean hasNext() {
+        return nextA != null || nextB != null;
+      }
 
-    Double totalExpenses = expenses.stream()
-        .mapToDouble(Expense::getAmount)
-        .sum();
+      @Override
+      public TransactionDTO next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        TransactionDTO result;
+        if (nextB == null || (nextA != null && NEWEST_FIRST.compare(nextA, nextB) <= 0)) {
+          result = nextA;
+          nextA = a.hasNext() ? a.next() : null;
+        } else {
+          result = nextB;
+          nextB = b.hasNext() ? b.next() : null;
+        }
+        return result;
+      }
+    };
+  }
 
-    Double totalRevenue = revenues.stream()
-        .mapToDouble(Revenue::getAmount)
-        .sum();
+  // Not read-only: the bucket cache loaded here is kept current by write deltas,
+  // so it must be loaded from the primary, never from a lagging replica
+  public List<TrendAnalysisDTO> getTrendAnalysis(Long userId, String timeFrame, String type, String category,
+      String startDate, String endDate) {
+    return trendAnalysisService.getTrendAnalysis(userId, timeFrame, type, category, startDate, endDate);
+  }
 
-    Double netIncome = totalRevenue - totalExpenses;
-    Double grossMargin = totalRevenue > 0 ? (netIncome / totalRevenue) * 100 : 0;
+  // Both reports are built from (month, category) aggregate rows, so their cost
+  // follows categories x months rather than the number of transactions
+  @Transactional(readOnly = true)
+  public List<ExpenseReportDTO> getExpenseReport(Long userId, String startDate, String endDate) {
+    Date startDateObj = Date.from(LocalDate.parse(startDate).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    Date endDateObj = Date.from(LocalDate.parse(endDate).atStartOfDay(ZoneId.systemDefault()).toInstant());
+
+    // category -> month -> {total, count}
+    Map<String, Map<String, double[]>> byCategory = new TreeMap<>();
+    double totalExpenses = 0;
+    for (PeriodTotalDTO row : expenseRepository.sumExpenseByMonthAndCategoryBetween(userId, startDateObj, endDateObj)) {
+      String category = row.getName() != null ? row.getName() : "Uncategorized";
+      double total = row.getTotal() != null ? row.getTotal() : 0.0;
+      double[] month = byCategory.computeIfAbsent(category, k -> new TreeMap<>())
+          .computeIfAbsent(row.getPeriod(), k -> new double[2]);
+      month[0] += total;
+      month[1] += row.getCount() != null ? row.getCount() : 0;
+      totalExpenses += total;
+    }
 
-    // Group expenses by category
-    Map<String, List<Expense>> expenseGroups = expenses.stream()
-        .collect(Collectors.groupingBy(e -> e.getCategory() != null ? e.getCategory() : "Uncategorized"));
+    List<ExpenseReportDTO> report = new ArrayList<>(byCategory.size());
+    for (Map.Entry<String, Map<String, double[]>> entry : byCategory.entrySet()) {
+      double categoryTotal = 0;
+      long count = 0;
+      for (double[] month : entry.getValue().values()) {
+        categoryTotal += month[0];
+        count += (long) month[1];
+      }
 
-    List<CategoryBreakdownDTO> expenseCategories = expenseGroups.entrySet().stream()
-        .map(entry -> {
-          Double amount = entry.getValue().stream()
-              .mapToDouble(Expense::getAmount)
-              .sum();
-          Double percentage = totalExpenses > 0 ? (amount / totalExpenses) * 100 : 0;
+      List<MonthlyBreakdownDTO> monthlyBreakdown = new ArrayList<>(entry.getValue().size());
+      for (Map.Entry<String, double[]> month : entry.getValue().entrySet()) {
+        double monthTotal = month.getValue()[0];
+        monthlyBreakdown.add(new MonthlyBreakdownDTO(
+            month.getKey(),
+            monthTotal,
+            categoryTotal > 0 ? (monthTotal / categoryTotal) * 100 : 0.0));
+      }
 
-          return new CategoryBreakdownDTO(entry.getKey(), amount, percentage);
-        })
-        .collect(Collectors.toList());
+      report.add(new ExpenseReportDTO(
+          entry.getKey(),
+          categoryTotal,
+          count,
+          count > 0 ? categoryTotal / count : 0.0,
+          totalExpenses > 0 ? (categoryTotal / totalExpenses) * 100 : 0.0,
+          monthlyBreakdown));
+    }
+    return report;
+  }
 
-    // Group revenues by source
-    Map<String, List<Revenue>> revenueGroups = revenues.stream()
-        .collect(Collectors.groupingBy(r -> r.getSource() != null ? r.getSource() : "Other"));
+  @Transactional(readOnly = true)
+  public IncomeStatementDTO getIncomeStatement(Long userId, String startDate, String endDate) {
+    Date startDateObj = Date.from(LocalDate.parse(startDate).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    Date endDateObj = Date.from(LocalDate.parse(endDate).atStartOfDay(ZoneId.systemDefault()).toInstant());
 
-    List<CategoryBreakdownDTO> revenueCategories = revenueGroups.entrySet().stream()
-        .map(entry -> {
-          Double amount = entry.getValue().stream()
-              .mapToDouble(Revenue::getAmount)
-              .sum();
-          Double percentage = totalRevenue > 0 ? (amount / totalRevenue) * 100 : 0;
+    Map<String, Double> expenseTotals = sumByName(
+        expenseRepository.sumExpenseByMonthAndCategoryBetween(userId, startDateObj, endDateObj), "Uncategorized");
+    Map<String, Double> revenueTotals = sumByName(
+        revenueRepository.sumRevenueByMonthAndSourceBetween(userId, startDateObj, endDateObj), "Other");
 
-          return new CategoryBreakdownDTO(entry.getKey(), amount, percentage);
-        })
-        .collect(Collectors.toList());
+    double totalExpenses = expenseTotals.values().stream().mapToDouble(Double::doubleValue).sum();
+    double totalRevenue = revenueTotals.values().stream().mapToDouble(Double::doubleValue).sum();
+    double netIncome = totalRevenue - totalExpenses;
+    double grossMargin = totalRevenue > 0 ? (netIncome / totalRevenue) * 100 : 0;
 
     Map<String, List<CategoryBreakdownDTO>> categories = new HashMap<>();
-    categories.put("revenue", revenueCategories);
-    categories.put("expenses", expenseCategories);
+    categories.put("revenue", breakdown(revenueTotals, totalRevenue));
+    categories.put("expenses", breakdown(expenseTotals, totalExpenses));
 
     return new IncomeStatementDTO(
         totalRevenue,
@@ -672,52 +779,141 @@ public class TransactionService {
         categories);
   }
 
+  // Collapses (month, name) aggregate rows into per-name totals
+  private static Map<String, Double> sumByName(List<PeriodTotalDTO> rows, String defaultName) {
+    Map<String, Double> totals = new TreeMap<>();
+    for (PeriodTotalDTO row : rows) {
+      totals.merge(row.getName() != null ? row.getName() : defaultName,
+          row.getTotal() != null ? row.getTotal() : 0.0, Double::sum);
+    }
+    return totals;
+  }
+
+  private static List<CategoryBreakdownDTO> breakdown(Map<String, Double> totals, double grandTotal) {
+    List<CategoryBreakdownDTO> breakdown = new ArrayList<>(totals.size());
+    totals.forEach((name, amount) -> breakdown.add(
+        new CategoryBreakdownDTO(name, amount, grandTotal > 0 ? (amount / grandTotal) * 100 : 0.0)));
+    return breakdown;
+  }
+
   // Update generateReport method in TransactionService
-  public ResponseEntity<byte[]> generateReport(Long userId, ReportRequestDTO request) {
+  @Transactional(readOnly = true)
+  public ResponseEntity<Resource> generateReport(Long userId, ReportRequestDTO request) {
+    return generateReport(userId, request, false);
+  }
+
+  // Renders a report into the report cache ahead of demand. False when it was cached
+  // already or is not cacheable (JSON); a report that failed to render throws
+  @Transactional(readOnly = true)
+  public boolean prewarmReport(Long userId, ReportRequestDTO request) {
+    ResponseEntity<Resource> response = generateReport(userId, request, true);
+    if (response != null && !response.getStatusCode().is2xxSuccessful()) {
+      throw new IllegalStateException("Could not render the " + request.type() + " report");
+    }
+    return response != null;
+  }
+
+  private ResponseEntity<Resource> generateReport(Long userId, ReportRequestDTO request, boolean prewarm) {
+    ReportGenerationEvent event = new ReportGenerationEvent();
+    event.begin();
+    long prepareStart = System.nanoTime();
     try {
-      // Generate report content based on type
-      byte[] reportBytes;
-      String contentType;
-      String fileExtension;
+      String format = REPORT_FORMATS.containsKey(request.format().toLowerCase())
+          ? request.format().toLowerCase()
+          : "pdf";
+      String contentType = REPORT_FORMATS.get(format)[0];
+      String fileExtension = REPORT_FORMATS.get(format)[1];
+
+      // Repeated downloads of an unchanged report are served from the rendered bytes;
+      // JSON reports carry a generation timestamp and are always rebuilt
+      String dataVersion = format.equals("json") ? null : reportDataVersion(userId, request);
+      String cacheKey = dataVersion == null ? null
+          : reportCacheService.key(userId, request, format, dataVersion);
+      if (prewarm && (cacheKey == null || reportCacheService.contains(cacheKey))) {
+        return null;
+      }
+      ReportCacheService.Hit hit = cacheKey != null && !prewarm ? reportCacheService.get(cacheKey) : null;
+      if (cacheKey != null) {
+        metrics.recordReportCache(format, prewarm ? "prewarm" : hit != null ? hit.level() : "miss");
+      }
+      if (hit != null) {
+        event.end();
+        if (event.shouldCommit()) {
+          event.userId = userId;
+          event.reportType = request.type();
+          event.format = request.format();
+          event.bytes = hit.body().contentLength();
+          event.prepareTime = System.nanoTime() - prepareStart;
+          event.cache = hit.level();
+          event.succeeded = true;
+          event.commit();
+        }
+        return reportResponse(userId, request, contentType, fileExtension, hit.body());
+      }
 
-      switch (request.format().toLowerCase()) {
+      // Generate report content based on type
+      byte[] reportBytes = null;
+      // Set instead of reportBytes when the report was rendered straight into the cache
+      Resource rendered = null;
+      // Set right before each render call so data preparation is not timed
+      long renderStart;
+      Object preparedData;
+
+      switch (format) {
         case "csv":
           // Prepare data for CSV
           Map<String, Object> csvData = prepareCsvData(userId, request);
           List<Map<String, Object>> csvRows = (List<Map<String, Object>>) csvData.get("rows");
           List<String> headers = (List<String>) csvData.get("headers");
+          preparedData = csvRows;
 
+          renderStart = System.nanoTime();
           reportBytes = reportGeneratorService.generateCsv(
               request.type() + " Report",
               csvRows,
               headers);
-          contentType = "text/csv";
-          fileExtension = "csv";
           break;
 
         case "html":
           Map<String, Object> htmlData = prepareReportData(userId, request);
+          preparedData = htmlData;
+          renderStart = System.nanoTime();
           reportBytes = reportGeneratorService.generateHtml(
               request.type() + " Report",
               htmlData);
-          contentType = "text/html";
-          fileExtension = "html";
           break;
 
         case "markdown":
           Map<String, Object> mdData = prepareReportData(userId, request);
+          preparedData = mdData;
+          renderStart = System.nanoTime();
           reportBytes = reportGeneratorService.generateMarkdown(
               request.type() + " Report",
               mdData);
-          contentType = "text/markdown";
-          fileExtension = "md";
+          break;
+
+        case "xlsx":
+          Map<String, Object> xlsxData = prepareReportData(userId, request);
+          preparedData = xlsxData;
+          renderStart = System.nanoTime();
+          // Workbooks are the largest renders: a cache miss writes the zipped sheets
+          // to the cache file as they are produced and is served from there
+          if (cacheKey != null && !xlsxData.containsKey(REPORT_FAILED)) {
+            rendered = reportCacheService.put(cacheKey,
+                out -> reportGeneratorService.writeXlsx(request.type() + " Report", xlsxData, out));
+          }
+          if (rendered == null) {
+            reportBytes = reportGeneratorService.generateXlsx(
+                request.type() + " Report",
+                xlsxData);
+          }
           break;
 
         case "json":
           Object jsonData = prepareJsonData(userId, request);
+          preparedData = jsonData;
+          renderStart = System.nanoTime();
           reportBytes = reportGeneratorService.generateJson(jsonData);
-          contentType = "application/json";
-          fileExtension = "json";
           break;
 
         case "pdf":
@@ -727,31 +923,111 @@ public class TransactionService {
           System.out.println("DEBUG PDF Data: " + pdfData);
           System.out.println("DEBUG Summary: " + pdfData.get("summary"));
           System.out.println("DEBUG Tables: " + pdfData.get("tables"));
+          preparedData = pdfData;
 
+          renderStart = System.nanoTime();
           reportBytes = reportGeneratorService.generatePdf(
               request.type() + " Report",
               pdfData);
-          contentType = "application/pdf";
-          fileExtension = "pdf";
+      }
+      long renderNanos = System.nanoTime() - renderStart;
+      boolean failed = preparedData instanceof Map<?, ?> prepared && prepared.containsKey(REPORT_FAILED);
+      long reportSize = rendered != null ? rendered.contentLength() : reportBytes.length;
+      metrics.recordReportRender(request.format(), request.type(), renderNanos, reportSize);
+
+      event.end();
+      if (event.shouldCommit()) {
+        event.userId = userId;
+        event.reportType = request.type();
+        event.format = request.format();
+        event.rows = ReportRenderEvent.rowCount(preparedData);
+        event.bytes = reportSize;
+        event.prepareTime = renderStart - prepareStart;
+        event.renderTime = renderNanos;
+        event.cache = prewarm ? "prewarm" : cacheKey != null ? "miss" : "off";
+        event.succeeded = !failed;
+        event.commit();
       }
 
-      String filename = String.format("%s_%s_%s.%s",
-          request.type(),
-          userId,
-          LocalDate.now().toString(),
-          fileExtension);
-
-      return ResponseEntity.ok()
-          .header(HttpHeaders.CONTENT_TYPE, contentType)
-          .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-          .body(reportBytes);
+      // An error report is fine to show a user but must not count as prewarmed
+      if (prewarm && failed) {
+        return ResponseEntity.status(500).build();
+      }
+      Resource body = rendered != null ? rendered
+          : cacheKey != null && !failed ? reportCacheService.put(cacheKey, reportBytes)
+          : new ByteArrayResource(reportBytes);
+      return reportResponse(userId, request, contentType, fileExtension, body);
 
     } catch (Exception e) {
+      event.end();
+      if (event.shouldCommit()) {
+        event.userId = userId;
+        event.reportType = request.type();
+        event.format = request.format();
+        event.commit();
+      }
       e.printStackTrace();
       return ResponseEntity.status(500).build();
     }
   }
 
+  // Version of the rows a report reads: those created between its start and end dates,
+  // bounded like buildReportData. Null when the dates do not parse; the report then
+  // renders an error and is not cached
+  private String reportDataVersion(Long userId, ReportRequestDTO request) {
+    if (request.startDate() == null || request.endDate() == null) {
+      return null;
+    }
+    try {
+      ZoneId zone = ZoneId.systemDefault();
+      Date start = Date.from(LocalDate.parse(request.startDate()).atStartOfDay(zone).toInstant());
+      Date end = Date.from(LocalDate.parse(request.endDate()).plusDays(1).atStartOfDay(zone).toInstant());
+      return tombstoneRepository.findDataVersion(userId, start, end);
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+
+  // Several formats of one report in a zip. The data is prepared once, here on the
+  // request thread; rendering and zipping happen while the response streams
+  @Transactional(readOnly = true)
+  public ResponseEntity<StreamingResponseBody> generateReportBundle(Long userId, ReportBundleRequestDTO request) {
+    List<String> formats = ReportBundleService.formats(request.formats());
+    ReportRequestDTO reportRequest = new ReportRequestDTO(
+        request.type(), request.startDate(), request.endDate(), "zip");
+    Map<String, Object> data = prepareReportData(userId, reportRequest);
+
+    Map<String, Object> json = new LinkedHashMap<>();
+    json.put("reportType", request.type());
+    json.put("userId", userId);
+    json.put("period", request.startDate() + " to " + request.endDate());
+    json.put("generatedAt", new Date().toString());
+    json.put("summary", data.get("summary"));
+    json.put("tables", data.get("tables"));
+
+    // The type is client input and ends up in the header and in every entry name
+    String baseName = String.format("%s_%s_%s", ReportBundleService.slug(request.type()), userId, LocalDate.now());
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_TYPE, "application/zip")
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + baseName + ".zip\"")
+        .body(out -> reportBundleService.writeBundle(baseName, request.type() + " Report", data, json,
+            formats, out));
+  }
+
+  private static ResponseEntity<Resource> reportResponse(Long userId, ReportRequestDTO request, String contentType,
+      String fileExtension, Resource body) {
+    String filename = String.format("%s_%s_%s.%s",
+        ReportBundleService.slug(request.type()),
+        userId,
+        LocalDate.now().toString(),
+        fileExtension);
+
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_TYPE, contentType)
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+        .body(body);
+  }
+
   private Map<String, Object> prepareCsvData(Long userId, ReportRequestDTO request) {
     try {
       Map<String, Object> data = new HashMap<>();
@@ -785,159 +1061,185 @@ public class TransactionService {
   }
 
   private Map<String, Object> prepareReportData(Long userId, ReportRequestDTO request) {
+    ReportDataPreparedEvent event = new ReportDataPreparedEvent();
+    event.begin();
+    try {
+      // Closed months and years are decoded from their snapshot instead of recomputed
+      Map<String, Object> data = reportSnapshotService.getOrCompute(userId, request,
+          () -> buildReportData(userId, request));
+
+      event.end();
+      if (event.shouldCommit()) {
+        event.userId = userId;
+        event.reportType = request.type();
+        event.tables = ((List<?>) data.get("tables")).size();
+        event.rows = ReportRenderEvent.rowCount(data);
+        event.commit();
+      }
+      return data;
+
+    } catch (Exception e) {
+      log.error("Could not prepare {} report data for user {}", request.type(), userId, e);
+
+      // Return error data
+      Map<String, Object> data = new HashMap<>();
+      data.put("summary", Map.of("Error", "Failed to generate report: " + e.getMessage()));
+      data.put("tables", List.of());
+      data.put(REPORT_FAILED, Boolean.TRUE);
+      return data;
+    }
+  }
+
+  private Map<String, Object> buildReportData(Long userId, ReportRequestDTO request) {
     Map<String, Object> data = new HashMap<>();
     Map<String, Object> summary = new HashMap<>();
     List<Map<String, Object>> tables = new ArrayList<>();
 
-    try {
-      System.out.println("DEBUG: Preparing report data for type: " + request.type());
+    System.out.println("DEBUG: Preparing report data for type: " + request.type());
 
-      if (request.type().equalsIgnoreCase("expense")) {
-        List<ExpenseReportDTO> report = getExpenseReport(userId, request.startDate(), request.endDate());
+    if (request.type().equalsIgnoreCase("expense")) {
+      List<ExpenseReportDTO> report = getExpenseReport(userId, request.startDate(), request.endDate());
 
-        System.out.println("DEBUG: Got " + report.size() + " expense records");
-
-        if (!report.isEmpty()) {
-          double total = report.stream().mapToDouble(ExpenseReportDTO::totalAmount).sum();
-          double avg = report.stream().mapToDouble(ExpenseReportDTO::averageAmount).average().orElse(0);
-
-          summary.put("Total Expenses", total);
-          summary.put("Average per Category", avg);
-          summary.put("Number of Categories", report.size());
-
-          // Create table
-          Map<String, Object> table = new HashMap<>();
-          table.put("title", "Expense Categories");
-          table.put("headers", List.of("Category", "Amount", "Transactions", "Average", "Percentage"));
-
-          List<List<Object>> rows = new ArrayList<>();
-          for (ExpenseReportDTO item : report) {
-            rows.add(List.of(
-                item.category(),
-                item.totalAmount(),
-                item.transactionCount(),
-                item.averageAmount(),
-                item.percentage() + "%"));
-          }
-          table.put("rows", rows);
-          tables.add(table);
-        } else {
-          summary.put("Message", "No expense data found for the selected period");
+      System.out.println("DEBUG: Got " + report.size() + " expense records");
+
+      if (!report.isEmpty()) {
+        double total = report.stream().mapToDouble(ExpenseReportDTO::totalAmount).sum();
+        double avg = report.stream().mapToDouble(ExpenseReportDTO::averageAmount).average().orElse(0);
+
+        summary.put("Total Expenses", total);
+        summary.put("Average per Category", avg);
+        summary.put("Number of Categories", report.size());
+
+        // Create table
+        Map<String, Object> table = new HashMap<>();
+        table.put("title", "Expense Categories");
+        table.put("headers", List.of("Category", "Amount", "Transactions", "Average", "Percentage"));
+
+        List<List<Object>> rows = new ArrayList<>();
+        for (ExpenseReportDTO item : report) {
+          rows.add(List.of(
+              item.category(),
+              item.totalAmount(),
+              item.transactionCount(),
+              item.averageAmount(),
+              item.percentage() + "%"));
         }
+        table.put("rows", rows);
+        tables.add(table);
+      } else {
+        summary.put("Message", "No expense data found for the selected period");
+      }
+
+    } else if (request.type().equalsIgnoreCase("income-statement")) {
+      IncomeStatementDTO incomeStatement = getIncomeStatement(userId, request.startDate(), request.endDate());
 
-      } else if (request.type().equalsIgnoreCase("income-statement")) {
-        IncomeStatementDTO incomeStatement = getIncomeStatement(userId, request.startDate(), request.endDate());
-
-        summary.put("Total Revenue", incomeStatement.totalRevenue());
-        summary.put("Total Expenses", incomeStatement.totalExpenses());
-        summary.put("Net Income", incomeStatement.netIncome());
-        summary.put("Gross Margin", incomeStatement.grossMargin() + "%");
-
-        // Revenue table
-        if (incomeStatement.categories().containsKey("revenue")) {
-          List<CategoryBreakdownDTO> revenues = incomeStatement.categories().get("revenue");
-          if (!revenues.isEmpty()) {
-            Map<String, Object> revenueTable = new HashMap<>();
-            revenueTable.put("title", "Revenue Breakdown");
-            revenueTable.put("headers", List.of("Source", "Amount", "Percentage"));
-
-            List<List<Object>> revenueRows = new ArrayList<>();
-            for (CategoryBreakdownDTO cat : revenues) {
-              revenueRows.add(List.of(cat.name(), cat.amount(), cat.percentage() + "%"));
-            }
-            revenueTable.put("rows", revenueRows);
-            tables.add(revenueTable);
+      summary.put("Total Revenue", incomeStatement.totalRevenue());
+      summary.put("Total Expenses", incomeStatement.totalExpenses());
+      summary.put("Net Income", incomeStatement.netIncome());
+      summary.put("Gross Margin", incomeStatement.grossMargin() + "%");
+
+      // Revenue table
+      if (incomeStatement.categories().containsKey("revenue")) {
+        List<CategoryBreakdownDTO> revenues = incomeStatement.categories().get("revenue");
+        if (!revenues.isEmpty()) {
+          Map<String, Object> revenueTable = new HashMap<>();
+          revenueTable.put("title", "Revenue Breakdown");
+          revenueTable.put("headers", List.of("Source", "Amount", "Percentage"));
+
+          List<List<Object>> revenueRows = new ArrayList<>();
+          for (CategoryBreakdownDTO cat : revenues) {
+            revenueRows.add(List.of(cat.name(), cat.amount(), cat.percentage() + "%"));
           }
+          revenueTable.put("rows", revenueRows);
+          tables.add(revenueTable);
         }
+      }
 
-        // Expense table
-        if (incomeStatement.categories().containsKey("expenses")) {
-          List<CategoryBreakdownDTO> expenses = incomeStatement.categories().get("expenses");
-          if (!expenses.isEmpty()) {
-            Map<String, Object> expenseTable = new HashMap<>();
-            expenseTable.put("title", "Expense Breakdown");
-            expenseTable.put("headers", List.of("Category", "Amount", "Percentage"));
-
-            List<List<Object>> expenseRows = new ArrayList<>();
-            for (CategoryBreakdownDTO cat : expenses) {
-              expenseRows.add(List.of(cat.name(), cat.amount(), cat.percentage() + "%"));
-            }
-            expenseTable.put("rows", expenseRows);
-            tables.add(expenseTable);
+      // Expense table
+      if (incomeStatement.categories().containsKey("expenses")) {
+        List<CategoryBreakdownDTO> expenses = incomeStatement.categories().get("expenses");
+        if (!expenses.isEmpty()) {
+          Map<String, Object> expenseTable = new HashMap<>();
+          expenseTable.put("title", "Expense Breakdown");
+          expenseTable.put("headers", List.of("Category", "Amount", "Percentage"));
+
+          List<List<Object>> expenseRows = new ArrayList<>();
+          for (CategoryBreakdownDTO cat : expenses) {
+            expenseRows.add(List.of(cat.name(), cat.amount(), cat.percentage() + "%"));
           }
+          expenseTable.put("rows", expenseRows);
+          tables.add(expenseTable);
         }
+      }
 
-      } else if (request.type().equalsIgnoreCase("all") || request.type().equalsIgnoreCase("transactions")) {
-        // Get both expenses and revenues
-        List<Expense> expenses = expenseRepository.findByUserIdAndCreationDateBetween(
-            userId,
-            Date.from(LocalDate.parse(request.startDate()).atStartOfDay(ZoneId.systemDefault()).toInstant()),
-            Date.from(LocalDate.parse(request.endDate()).plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant()));
-
-        List<Revenue> revenues = revenueRepository.findByUserIdAndCreationDateBetween(
-            userId,
-            Date.from(LocalDate.parse(request.startDate()).atStartOfDay(ZoneId.systemDefault()).toInstant()),
-            Date.from(LocalDate.parse(request.endDate()).plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant()));
-
-        System.out.println("DEBUG: Found " + expenses.size() + " expenses and " + revenues.size() + " revenues");
-
-        double totalExpenses = expenses.stream().mapToDouble(Expense::getAmount).sum();
-        double totalRevenues = revenues.stream().mapToDouble(Revenue::getAmount).sum();
-
-        summary.put("Total Revenues", totalRevenues);
-        summary.put("Total Expenses", totalExpenses);
-        summary.put("Net Income", totalRevenues - totalExpenses);
-        summary.put("Transaction Count", expenses.size() + revenues.size());
-
-        // Create combined transactions table
-        Map<String, Object> transTable = new HashMap<>();
-        transTable.put("title", "All Transactions");
-        transTable.put("headers", List.of("Date", "Type", "Category/Source", "Amount"));
-
-        List<List<Object>> transRows = new ArrayList<>();
-
-        // Add revenues
-        for (Revenue r : revenues) {
-          transRows.add(List.of(
-              r.getCreationDate().toString(),
-              "Revenue",
-              r.getSource() != null ? r.getSource() : "N/A",
-              r.getAmount()));
-        }
+    } else if (request.type().equalsIgnoreCase("all") || request.type().equalsIgnoreCase("transactions")) {
+      // Totals come from aggregates; the rows themselves are only read while a
+      // renderer writes them
+      Date start = Date.from(LocalDate.parse(request.startDate()).atStartOfDay(ZoneId.systemDefault()).toInstant());
+      Date end = Date.from(LocalDate.parse(request.endDate()).plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+      double totalExpenses = expenseRepository.sumExpensesByUserAndDateRange(userId, start, end);
+      double totalRevenues = revenueRepository.sumRevenueByUserAndDateRange(userId, start, end);
+      long transactionCount = expenseRepository.countExpensesByUserAndDateRange(userId, start, end)
+          + revenueRepository.countRevenueByUserAndDateRange(userId, start, end);
+
+      summary.put("Total Revenues", totalRevenues);
+      summary.put("Total Expenses", totalExpenses);
+      summary.put("Net Income", totalRevenues - totalExpenses);
+      summary.put("Transaction Count", transactionCount);
+
+      // Create combined transactions table
+      Map<String, Object> transTable = new HashMap<>();
+      transTable.put("title", "All Transactions");
+      transTable.put("headers", List.of("Date", "Type", "Category/Source", "Amount"));
+      ReportRows transRows = new ReportRows(transactionCount, () -> reportRowsInRange(userId, start, end));
+
+      transTable.put("rows", transRows);
+      tables.add(transTable);
+    }
 
-        // Add expenses
-        for (Expense e : expenses) {
-          transRows.add(List.of(
-              e.getCreationDate().toString(),
-              "Expense",
-              e.getCategory() != null ? e.getCategory() : "N/A",
-              e.getAmount()));
-        }
+    data.put("summary", summary);
+    data.put("tables", tables);
 
-        // Sort by date (most recent first)
-        transRows.sort((a, b) -> b.get(0).toString().compareTo(a.get(0).toString()));
+    System.out.println("DEBUG: Final data has " + summary.size() + " summary items and " + tables.size() + " tables");
+    return data;
+  }
 
-        transTable.put("rows", transRows);
-        tables.add(transTable);
+  // Both tables' rows in [start, end] merged most recent first, read in keyset batches
+  // like exportTransactions, so a render holds one batch per table
+  private Iterator<List<Object>> reportRowsInRange(Long userId, Date start, Date end) {
+    Iterator<TransactionDTO> merged = mergeNewestFirst(
+        keysetBatches(
+            page -> expenseRepository.findRowsByUserAndDateRange(userId, start, end, page),
+            (last, page) -> expenseRepository.findRowsByUserInRangeBefore(userId, start, last.creationDate(),
+                last.id(), page),
+            this::convertExpenseRowToDTO),
+        keysetBatches(
+            page -> revenueRepository.findRowsByUserAndDateRange(userId, start, end, page),
+            (last, page) -> revenueRepository.findRowsByUserInRangeBefore(userId, start, last.creationDate(),
+                last.id(), page),
+            this::convertRevenueRowToDTO));
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return merged.hasNext();
       }
 
-      data.put("summary", summary);
-      data.put("tables", tables);
-
-      System.out.println("DEBUG: Final data has " + summary.size() + " summary items and " + tables.size() + " tables");
-
-      return data;
-
-    } catch (Exception e) {
-      System.err.println("ERROR in prepareReportData: " + e.getMessage());
-      e.printStackTrace();
+      @Override
+      public List<Object> next() {
+        return reportRow(merged.next());
+      }
+    };
+  }
 
-      // Return error data
-      summary.put("Error", "Failed to generate report: " + e.getMessage());
-      data.put("summary", summary);
-      data.put("tables", tables);
-      return data;
-    }
+  // Row of the "All Transactions" table
+  private static List<Object> reportRow(TransactionDTO transaction) {
+    boolean revenue = transaction.getType().equals("revenue");
+    String name = revenue ? transaction.getSource() : transaction.getCategory();
+    return List.of(
+        transaction.getCreationDate().toString(),
+        revenue ? "Revenue" : "Expense",
+        name != null ? name : "N/A",
+        transaction.getAmount());
   }
 
   private Object prepareJsonData(Long userId, ReportRequestDTO request) {
@@ -985,62 +1287,9 @@ public class TransactionService {
     return content.toString();
   }
 
-  public Map<String, Object> getBudgetVsActual(Long userId, String timeFrame) {
-    // This would compare budget vs actual expenses
-    // For now, return a simple structure
-    Map<String, Object> result = new HashMap<>();
-
-    // Get actual expenses
-    Map<String, Date> dateRange = getDateRange(timeFrame);
-    List<Expense> expenses = expenseRepository.findByUserIdAndCreationDateBetween(
-        userId, dateRange.get("start"), dateRange.get("end"));
-
-    // Group by category
-    Map<String, Double> actualByCategory = expenses.stream()
-        .collect(Collectors.groupingBy(
-            e -> e.getCategory() != null ? e.getCategory() : "Uncategorized",
-            Collectors.summingDouble(Expense::getAmount)));
-
-    // Get budget (you would have a budget table - for now use default budgets)
-    Map<String, Double> budgetByCategory = new HashMap<>();
-    actualByCategory.keySet().forEach(category -> budgetByCategory.put(category, 500.0) // Default budget of $500 per
-                                                                                        // category
-    );
-
-    // Calculate variances
-    List<Map<String, Object>> categories = new ArrayList<>();
-    for (Map.Entry<String, Double> entry : actualByCategory.entrySet()) {
-      String category = entry.getKey();
-      Double actual = entry.getValue();
-      Double budget = budgetByCategory.getOrDefault(category, 0.0);
-      Double variance = actual - budget;
-      Double variancePercent = budget > 0 ? (variance / budget) * 100 : 0;
-
-      Map<String, Object> categoryData = new HashMap<>();
-      categoryData.put("category", category);
-      categoryData.put("budget", budget);
-      categoryData.put("actual", actual);
-      categoryData.put("variance", variance);
-      categoryData.put("variancePercent", variancePercent);
-      categories.add(categoryData);
-    }
-
-    Double totalBudget = budgetByCategory.values().stream().mapToDouble(Double::doubleValue).sum();
-    Double totalActual = actualByCategory.values().stream().mapToDouble(Double::doubleValue).sum();
-    Double totalVariance = totalActual - totalBudget;
-    Double totalVariancePercent = totalBudget > 0 ? (totalVariance / totalBudget) * 100 : 0;
-
-    Map<String, Object> total = new HashMap<>();
-    total.put("budget", totalBudget);
-    total.put("actual", totalActual);
-    total.put("variance", totalVariance);
-    total.put("variancePercent", totalVariancePercent);
-
-    result.put("categories", categories);
-    result.put("total", total);
-    result.put("timeFrame", timeFrame);
-
-    return result;
+  @Transactional(readOnly = true)
+  public BudgetVsActualDTO getBudgetVsActual(Long userId, String timeFrame) {
+    return budgetService.getBudgetVsActual(userId, timeFrame);
   }
 
 }
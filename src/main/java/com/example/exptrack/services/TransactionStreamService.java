@@ -0,0 +1,185 @@
+package com.example.exptrack.services;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.exptrack.dtos.TransactionEventDTO;
+import com.example.exptrack.events.TransactionChangedEvent;
+
+import jakarta.annotation.PreDestroy;
+
+// Registry of open SSE connections per user. Emitters hold no thread while idle;
+// events are queued per subscriber and drained on a small shared pool, and a
+// subscriber whose queue overflows is dropped so one slow client can never
+// back up the write path or the other subscribers.
+@Service
+public class TransactionStreamService {
+
+  private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+  private final ExecutorService dispatcher;
+  private final long emitterTimeout;
+  private final int maxEmittersPerUser;
+  private final int queueCapacity;
+
+  public TransactionStreamService(
+      @Value("${sse.emitter-timeout-ms:1800000}") long emitterTimeout,
+      @Value("${sse.max-emitters-per-user:5}") int maxEmittersPerUser,
+      @Value("${sse.queue-capacity:64}") int queueCapacity,
+      @Value("${sse.dispatcher-threads:4}") int dispatcherThreads) {
+    this.emitterTimeout = emitterTimeout;
+    this.maxEmittersPerUser = maxEmittersPerUser;
+    this.queueCapacity = queueCapacity;
+    this.dispatcher = new ThreadPoolExecutor(
+        dispatcherThreads, dispatcherThreads,
+        30, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(10_000),
+        r -> {
+          Thread t = new Thread(r, "sse-dispatch");
+          t.setDaemon(true);
+          return t;
+        });
+    ((ThreadPoolExecutor) dispatcher).allowCoreThreadTimeOut(true);
+  }
+
+  public SseEmitter subscribe(Long userId) {
+    SseEmitter emitter = new SseEmitter(emitterTimeout);
+    Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(queueCapacity));
+
+    List<Subscriber> userSubscribers = subscribers.compute(userId, (id, list) -> {
+      List<Subscriber> current = list != null ? list : new CopyOnWriteArrayList<>();
+      current.add(subscriber);
+      return current;
+    });
+
+    // Oldest connection makes room when a user opens too many tabs
+    while (userSubscribers.size() > maxEmittersPerUser) {
+      Subscriber oldest = userSubscribers.get(0);
+      remove(oldest);
+      oldest.emitter.complete();
+    }
+
+    emitter.onCompletion(() -> remove(subscriber));
+    emitter.onTimeout(() -> remove(subscriber));
+    emitter.onError(e -> remove(subscriber));
+
+    enqueue(subscriber, SseEmitter.event().name("connected").data("ok"));
+    return emitter;
+  }
+
+  @TransactionalEventListener
+  public void onTransactionChanged(TransactionChangedEvent event) {
+    List<Subscriber> userSubscribers = subscribers.get(event.userId());
+    if (userSubscribers == null || userSubscribers.isEmpty()) {
+      return;
+    }
+
+    TransactionEventDTO payload = new TransactionEventDTO(
+        event.action(),
+        event.transaction(),
+        event.amountDelta("expense"),
+        event.amountDelta("revenue"));
+
+    for (Subscriber subscriber : userSubscribers) {
+      enqueue(subscriber, SseEmitter.event().name("transaction").data(payload));
+    }
+  }
+
+  // Comment frames keep proxies from closing idle connections and flush out dead ones
+  @Scheduled(fixedDelayString = "${sse.heartbeat-interval-ms:15000}")
+  public void sendHeartbeats() {
+    for (List<Subscriber> userSubscribers : subscribers.values()) {
+      for (Subscriber subscriber : userSubscribers) {
+        enqueue(subscriber, SseEmitter.event().comment("heartbeat"));
+      }
+    }
+  }
+
+  public int getSubscriberCount() {
+    return subscribers.values().stream().mapToInt(List::size).sum();
+  }
+
+  private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+    if (!subscriber.queue.offer(event)) {
+      // Client is not keeping up: drop it, EventSource will reconnect and resync
+      remove(subscriber);
+      subscriber.emitter.complete();
+      return;
+    }
+
+    if (subscriber.draining.compareAndSet(false, true)) {
+      scheduleDrain(subscriber);
+    }
+  }
+
+  // Caller has set draining; a saturated or stopped pool drops the subscriber
+  private void scheduleDrain(Subscriber subscriber) {
+    try {
+      dispatcher.execute(() -> drain(subscriber));
+    } catch (RejectedExecutionException e) {
+      subscriber.draining.set(false);
+      remove(subscriber);
+      subscriber.emitter.complete();
+    }
+  }
+
+  private void drain(Subscriber subscriber) {
+    try {
+      SseEmitter.SseEventBuilder event;
+      while ((event = subscriber.queue.poll()) != null) {
+        subscriber.emitter.send(event);
+      }
+    } catch (IOException | IllegalStateException e) {
+      remove(subscriber);
+      subscriber.emitter.completeWithError(e);
+    } finally {
+      subscriber.draining.set(false);
+    }
+
+    // An event may have been queued after the last poll but before the flag was cleared
+    if (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+      scheduleDrain(subscriber);
+    }
+  }
+
+  private void remove(Subscriber subscriber) {
+    subscribers.computeIfPresent(subscriber.userId, (id, list) -> {
+      list.remove(subscriber);
+      return list.isEmpty() ? null : list;
+    });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    subscribers.values().forEach(list -> list.forEach(s -> s.emitter.complete()));
+    subscribers.clear();
+    dispatcher.shutdownNow();
+  }
+
+  private record Subscriber(
+      Long userId,
+      SseEmitter emitter,
+      Queue<SseEmitter.SseEventBuilder> queue,
+      AtomicBoolean draining) {
+
+    Subscriber(Long userId, SseEmitter emitter, Queue<SseEmitter.SseEventBuilder> queue) {
+      this(userId, emitter, queue, new AtomicBoolean(false));
+    }
+  }
+}
@@ -0,0 +1,305 @@
+package com.example.exptrack.services;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.exptrack.dtos.PeriodTotalDTO;
+import com.example.exptrack.dtos.TransactionDTO;
+import com.example.exptrack.dtos.TrendAnalysisDTO;
+import com.example.exptrack.events.TransactionChangedEvent;
+import com.example.exptrack.repositories.ExpenseRepository;
+import com.example.exptrack.repositories.RevenueRepository;
+
+// Trend analysis over monthly buckets. Each user's buckets are loaded once with a
+// date_trunc GROUP BY per table and then kept current by applying the deltas of
+// committed writes, so serving a trend never rescans transactions. Quarterly and
+// yearly series are rolled up from the monthly buckets.
+// A load is only cached when no write for the user was in flight around it: a
+// write counts as started before its commit and finished after its delta has been
+// applied, so a loaded snapshot never misses or double-counts a committed write.
+@Service
+public class TrendAnalysisService {
+
+  @Autowired
+  private ExpenseRepository expenseRepository;
+  @Autowired
+  private RevenueRepository revenueRepository;
+  @Autowired
+  private ForecastService forecastService;
+
+  // Write counters per user stripe; a shared stripe only costs a skipped cache put
+  private static final int WRITE_STRIPES = 4096;
+
+  private final Map<Long, UserBuckets> cache;
+  private final long cacheTtlMillis;
+  private final int maxMonths;
+  private final ZoneId zone;
+  private final AtomicLongArray writesStarted = new AtomicLongArray(WRITE_STRIPES);
+  private final AtomicLongArray writesFinished = new AtomicLongArray(WRITE_STRIPES);
+
+  // creation_date is a timestamp without time zone, written by Hibernate as wall time
+  // in its JDBC zone (the JVM zone unless configured). date_trunc buckets by that wall
+  // time, so deltas and "now" are bucketed in the same zone.
+  public TrendAnalysisService(
+      @Value("${trend.cache-max-users:10000}") int maxUsers,
+      @Value("${trend.cache-ttl-ms:3600000}") long cacheTtlMillis,
+      @Value("${trend.max-months:240}") int maxMonths,
+      @Value("${spring.jpa.properties.hibernate.jdbc.time_zone:}") String jdbcTimeZone) {
+    this.cacheTtlMillis = cacheTtlMillis;
+    this.maxMonths = maxMonths;
+    this.zone = jdbcTimeZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(jdbcTimeZone);
+    this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, UserBuckets> eldest) {
+        return size() > maxUsers;
+      }
+    });
+  }
+
+  public List<TrendAnalysisDTO> getTrendAnalysis(Long userId, String timeFrame, String type, String category,
+      String startDate, String endDate) {
+    String seriesType = "revenue".equalsIgnoreCase(type) ? "revenue" : "expense";
+    String seriesKey = category != null && !category.isBlank() ? seriesType + ":" + category : seriesType;
+    Granularity granularity = Granularity.of(timeFrame);
+
+    NavigableMap<YearMonth, Double> monthly = getBuckets(userId).series(seriesKey);
+
+    YearMonth now = YearMonth.now(zone);
+    YearMonth first = startDate != null
+        ? YearMonth.from(LocalDate.parse(startDate))
+        : (monthly.isEmpty() ? now : monthly.firstKey());
+    YearMonth last = endDate != null ? YearMonth.from(LocalDate.parse(endDate)) : now;
+    if (last.isBefore(first)) {
+      return List.of();
+    }
+    // The range comes from the client; keep the most recent trend.max-months of it
+    if (first.plusMonths(maxMonths - 1).isBefore(last)) {
+      first = last.minusMonths(maxMonths - 1);
+    }
+
+    // Roll months up into periods, zero-filling gaps so changes are period over period
+    YearMonth openPeriodStart = granularity.start(now);
+    Map<String, Double> periods = new LinkedHashMap<>();
+    Map<String, Double> closedPeriods = new LinkedHashMap<>();
+    for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+      String label = granularity.label(month);
+      double amount = monthly.getOrDefault(month, 0.0);
+      periods.merge(label, amount, Double::sum);
+      if (month.isBefore(openPeriodStart)) {
+        closedPeriods.merge(label, amount, Double::sum);
+      }
+    }
+
+    // Forecasts are fitted on closed periods only; the open period and anything
+    // after it get the forecast for the first unobserved period
+    double[] closed = closedPeriods.values().stream().mapToDouble(Double::doubleValue).toArray();
+    String firstPeriod = granularity.label(first);
+    String lastClosedPeriod = closed.length > 0
+        ? granularity.label(openPeriodStart.minusMonths(1))
+        : "";
+    double[] forecasts = forecastService.forecast(userId, seriesKey, granularity.name(), firstPeriod,
+        lastClosedPeriod, closed, granularity.seasonLength);
+
+    List<TrendAnalysisDTO> trendAnalysis = new ArrayList<>();
+    Double previousAmount = null;
+    int index = 0;
+
+    for (Map.Entry<String, Double> entry : periods.entrySet()) {
+      Double totalAmount = entry.getValue();
+
+      Double percentageChange = 0.0;
+      if (previousAmount != null && previousAmount > 0) {
+        percentageChange = ((totalAmount - previousAmount) / previousAmount) * 100;
+      }
+
+      String trend;
+      if (percentageChange > 5)
+        trend = "up";
+      else if (percentageChange < -5)
+        trend = "down";
+      else
+        trend = "stable";
+
+      Double forecast = forecasts[Math.min(index, closed.length)];
+
+      trendAnalysis.add(new TrendAnalysisDTO(
+          entry.getKey(),
+          seriesType,
+          totalAmount,
+          percentageChange,
+          trend,
+          forecast));
+
+      previousAmount = totalAmount;
+      index++;
+    }
+
+    return trendAnalysis;
+  }
+
+  // The finish is registered here rather than as an AFTER_COMPLETION listener so a
+  // rollback before commit is never counted, and ordered last so it follows the delta
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void onTransactionCommitting(TransactionChangedEvent event) {
+    int stripe = stripe(event.userId());
+    writesStarted.incrementAndGet(stripe);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        writesFinished.incrementAndGet(stripe);
+      }
+
+      @Override
+      public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+      }
+    });
+  }
+
+  @TransactionalEventListener
+  public void onTransactionChanged(TransactionChangedEvent event) {
+    UserBuckets buckets = cache.get(event.userId());
+    if (buckets == null) {
+      return; // Not loaded yet, the first read will see the committed row
+    }
+
+    if ("deleted".equals(event.action())) {
+      buckets.apply(event.transaction(), -1, zone);
+    } else {
+      buckets.apply(event.transaction(), 1, zone);
+    }
+    if (event.previous() != null) {
+      buckets.apply(event.previous(), -1, zone);
+    }
+  }
+
+  private UserBuckets getBuckets(Long userId) {
+    UserBuckets buckets = cache.get(userId);
+    if (buckets != null && System.currentTimeMillis() - buckets.loadedAt < cacheTtlMillis) {
+      return buckets;
+    }
+
+    int stripe = stripe(userId);
+    long started = writesStarted.get(stripe);
+    boolean quiet = writesFinished.get(stripe) == started;
+
+    UserBuckets loaded = new UserBuckets();
+    expenseRepository.sumExpenseByMonthAndCategory(userId).forEach(row -> loaded.add("expense", row));
+    revenueRepository.sumRevenueByMonthAndSource(userId).forEach(row -> loaded.add("revenue", row));
+
+    // A write in flight may or may not be in the load, and its delta may or may not
+    // reach the entry: serve the load once, but let the next read load again
+    if (quiet && writesStarted.get(stripe) == started) {
+      cache.put(userId, loaded);
+    } else {
+      cache.remove(userId);
+    }
+    return loaded;
+  }
+
+  private static int stripe(Long userId) {
+    return (int) Math.floorMod(userId, (long) WRITE_STRIPES);
+  }
+
+  private enum Granularity {
+    MONTHLY(12), QUARTERLY(4), YEARLY(0);
+
+    private final int seasonLength;
+
+    Granularity(int seasonLength) {
+      this.seasonLength = seasonLength;
+    }
+
+    static Granularity of(String timeFrame) {
+      switch (timeFrame == null ? "" : timeFrame.toLowerCase()) {
+        case "quarterly":
+        case "quarter":
+          return QUARTERLY;
+        case "yearly":
+        case "year":
+          return YEARLY;
+        default:
+          return MONTHLY;
+      }
+    }
+
+    YearMonth start(YearMonth month) {
+      switch (this) {
+        case QUARTERLY:
+          return month.withMonth((month.getMonthValue() - 1) / 3 * 3 + 1);
+        case YEARLY:
+          return month.withMonth(1);
+        default:
+          return month;
+      }
+    }
+
+    String label(YearMonth month) {
+      switch (this) {
+        case QUARTERLY:
+          return month.getYear() + "-Q" + ((month.getMonthValue() - 1) / 3 + 1);
+        case YEARLY:
+          return String.valueOf(month.getYear());
+        default:
+          return month.toString();
+      }
+    }
+  }
+
+  // Monthly totals per series: "expense", "revenue", "expense:<category>", "revenue:<source>"
+  private static class UserBuckets {
+    private final Map<String, NavigableMap<YearMonth, Double>> series = new HashMap<>();
+    private final long loadedAt = System.currentTimeMillis();
+
+    synchronized void add(String type, PeriodTotalDTO row) {
+      YearMonth month = YearMonth.parse(row.getPeriod());
+      double total = row.getTotal() != null ? row.getTotal() : 0.0;
+      series.computeIfAbsent(type, k -> new TreeMap<>()).merge(month, total, Double::sum);
+      series.computeIfAbsent(type + ":" + nameOrDefault(row.getName()), k -> new TreeMap<>())
+          .merge(month, total, Double::sum);
+    }
+
+    synchronized void apply(TransactionDTO transaction, int sign, ZoneId zone) {
+      if (transaction == null || transaction.getAmount() == null || transaction.getCreationDate() == null) {
+        return;
+      }
+      String type = transaction.getType();
+      String name = "expense".equals(type) ? transaction.getCategory() : transaction.getSource();
+      YearMonth month = YearMonth.from(transaction.getCreationDate().toInstant()
+          .atZone(zone)
+          .toLocalDate());
+      double delta = sign * transaction.getAmount();
+      series.computeIfAbsent(type, k -> new TreeMap<>()).merge(month, delta, Double::sum);
+      series.computeIfAbsent(type + ":" + nameOrDefault(name), k -> new TreeMap<>())
+          .merge(month, delta, Double::sum);
+    }
+
+    synchronized NavigableMap<YearMonth, Double> series(String key) {
+      NavigableMap<YearMonth, Double> months = series.get(key);
+      return months != null ? new TreeMap<>(months) : new TreeMap<>();
+    }
+
+    private static String nameOrDefault(String name) {
+      return name != null ? name : "Uncategorized";
+    }
+  }
+}
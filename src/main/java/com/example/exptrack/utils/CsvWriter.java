@@ -0,0 +1,305 @@
+package com.example.exptrack.utils;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Date;
+
+// RFC 4180 CSV encoded straight into one reusable byte buffer. Typed fields (longs,
+// amounts, dates, timestamps) are written as digits without going through a String,
+// text is UTF-8 encoded and escaped in the same pass, and the buffer is handed to the
+// stream in chunks that end on a row boundary. Nothing is allocated per row.
+public final class CsvWriter implements Flushable {
+
+  private static final int DEFAULT_CHUNK_SIZE = 32 * 1024;
+  private static final long MAX_CENTS = 900_000_000_000_000_000L;
+  private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+  private final OutputStream out;
+  private final byte[] buffer;
+  private final int chunkSize;
+  private int position;
+  private boolean rowStarted;
+
+  public CsvWriter(OutputStream out) {
+    this(out, DEFAULT_CHUNK_SIZE);
+  }
+
+  // The buffer holds a chunk plus room to finish the row that crosses it
+  public CsvWriter(OutputStream out, int chunkSize) {
+    this.out = out;
+    this.chunkSize = Math.max(chunkSize, 256);
+    this.buffer = new byte[this.chunkSize * 2];
+  }
+
+  public void field(CharSequence value) throws IOException {
+    separator();
+    if (value == null) {
+      return;
+    }
+    int length = value.length();
+    // At most 3 bytes per char, plus the two quotes
+    if (buffer.length - position < length * 3 + 2) {
+      flushBuffer();
+      if (buffer.length < length * 3 + 2) {
+        largeField(value);
+        return;
+      }
+    }
+
+    int start = position;
+    int pos = position;
+    boolean quoted = false;
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        if (c == '"' || c == ',' || c == '\n' || c == '\r') {
+          if (!quoted) {
+            // First special character: open the quote in front of what was written
+            System.arraycopy(buffer, start, buffer, start + 1, pos - start);
+            buffer[start] = '"';
+            pos++;
+            quoted = true;
+          }
+          if (c == '"') {
+            buffer[pos++] = '"';
+          }
+        }
+        buffer[pos++] = (byte) c;
+      } else {
+        int before = pos;
+        pos = encode(value, i, c, pos);
+        if (pos - before == 4) {
+          i++; // Consumed the low surrogate as well
+        }
+      }
+    }
+    if (quoted) {
+      buffer[pos++] = '"';
+    }
+    position = pos;
+  }
+
+  public void field(long value) throws IOException {
+    separator();
+    ensure(20);
+    if (value == Long.MIN_VALUE) {
+      System.arraycopy(MIN_LONG, 0, buffer, position, MIN_LONG.length);
+      position += MIN_LONG.length;
+      return;
+    }
+    if (value < 0) {
+      buffer[position++] = '-';
+      value = -value;
+    }
+    position = digits(value, position);
+  }
+
+  // Minor units as a plain decimal: -12345 -> "-123.45"
+  public void amount(long cents) throws IOException {
+    separator();
+    if (cents <= -MAX_CENTS || cents >= MAX_CENTS) {
+      writeAscii(BigDecimal.valueOf(cents, 2).toPlainString());
+      return;
+    }
+    ensure(22);
+    if (cents < 0) {
+      buffer[position++] = '-';
+      cents = -cents;
+    }
+    position = digits(cents / 100, position);
+    buffer[position++] = '.';
+    buffer[position++] = (byte) ('0' + cents % 100 / 10);
+    buffer[position++] = (byte) ('0' + cents % 10);
+  }
+
+  // Rounded to cents; amounts are stored as doubles holding cent values
+  public void amount(double value) throws IOException {
+    double cents = value * 100;
+    if (!(Math.abs(cents) < MAX_CENTS)) { // Also NaN
+      separator();
+      writeAscii(Double.isFinite(value) ? BigDecimal.valueOf(value).toPlainString() : Double.toString(value));
+      return;
+    }
+    amount(Math.round(cents));
+  }
+
+  // ISO yyyy-MM-dd
+  public void date(LocalDate date) throws IOException {
+    if (date == null) {
+      separator();
+      return;
+    }
+    date(date.toEpochDay());
+  }
+
+  // ISO instant in UTC to the second, 2024-01-31T18:05:09Z; null for an empty field
+  public void timestamp(Date date) throws IOException {
+    if (date == null) {
+      separator();
+      return;
+    }
+    long millis = date.getTime();
+    long seconds = Math.floorDiv(millis, 1000L);
+    long epochDay = Math.floorDiv(seconds, 86_400L);
+    int secondOfDay = (int) Math.floorMod(seconds, 86_400L);
+    date(epochDay);
+    ensure(10);
+    buffer[position++] = 'T';
+    position = twoDigits(secondOfDay / 3600, position);
+    buffer[position++] = ':';
+    position = twoDigits(secondOfDay / 60 % 60, position);
+    buffer[position++] = ':';
+    position = twoDigits(secondOfDay % 60, position);
+    buffer[position++] = 'Z';
+  }
+
+  // Ends the row; a full chunk is handed to the stream here, so it never splits a row
+  public void endRow() throws IOException {
+    ensure(1);
+    buffer[position++] = '\n';
+    rowStarted = false;
+    if (position >= chunkSize) {
+      flushBuffer();
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    flushBuffer();
+    out.flush();
+  }
+
+  private void date(long epochDay) throws IOException {
+    separator();
+    // Civil date from the day number (Hinnant's algorithm), years 0 to 9999 only
+    long z = epochDay + 719_468;
+    long era = Math.floorDiv(z, 146_097);
+    long dayOfEra = z - era * 146_097;
+    long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+    long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    long monthIndex = (5 * dayOfYear + 2) / 153;
+    int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+    int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+    long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+    if (year < 0 || year > 9999) {
+      writeAscii(LocalDate.ofEpochDay(epochDay).toString());
+      return;
+    }
+    ensure(10);
+    position = twoDigits((int) year / 100, position);
+    position = twoDigits((int) year % 100, position);
+    buffer[position++] = '-';
+    position = twoDigits(month, position);
+    buffer[position++] = '-';
+    position = twoDigits(day, position);
+  }
+
+  private void separator() throws IOException {
+    if (rowStarted) {
+      ensure(1);
+      buffer[position++] = ',';
+    }
+    rowStarted = true;
+  }
+
+  // Non-ASCII char at index i; returns the new offset. A valid surrogate pair is
+  // written as one 4-byte sequence, an unpaired surrogate as '?'
+  private int encode(CharSequence value, int i, char c, int pos) {
+    if (c < 0x800) {
+      buffer[pos++] = (byte) (0xC0 | (c >> 6));
+      buffer[pos++] = (byte) (0x80 | (c & 0x3F));
+    } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+        && Character.isLowSurrogate(value.charAt(i + 1))) {
+      int codePoint = Character.toCodePoint(c, value.charAt(i + 1));
+      buffer[pos++] = (byte) (0xF0 | (codePoint >> 18));
+      buffer[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+      buffer[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+      buffer[pos++] = (byte) (0x80 | (codePoint & 0x3F));
+    } else if (Character.isSurrogate(c)) {
+      buffer[pos++] = '?';
+    } else {
+      buffer[pos++] = (byte) (0xE0 | (c >> 12));
+      buffer[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+      buffer[pos++] = (byte) (0x80 | (c & 0x3F));
+    }
+    return pos;
+  }
+
+  // A field bigger than the buffer: decide on quoting first, then encode in pieces
+  private void largeField(CharSequence value) throws IOException {
+    int length = value.length();
+    boolean quoted = false;
+    for (int i = 0; i < length && !quoted; i++) {
+      char c = value.charAt(i);
+      quoted = c == '"' || c == ',' || c == '\n' || c == '\r';
+    }
+    if (quoted) {
+      buffer[position++] = '"';
+    }
+    for (int i = 0; i < length; i++) {
+      ensure(4);
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        if (c == '"') {
+          buffer[position++] = '"';
+        }
+        buffer[position++] = (byte) c;
+      } else {
+        int before = position;
+        position = encode(value, i, c, position);
+        if (position - before == 4) {
+          i++;
+        }
+      }
+    }
+    ensure(1);
+    if (quoted) {
+      buffer[position++] = '"';
+    }
+  }
+
+  private void writeAscii(String text) throws IOException {
+    ensure(text.length());
+    for (int i = 0; i < text.length(); i++) {
+      buffer[position++] = (byte) text.charAt(i);
+    }
+  }
+
+  // Non-negative value, returns the new offset
+  private int digits(long value, int pos) {
+    int count = 1;
+    for (long rest = value / 10; rest > 0; rest /= 10) {
+      count++;
+    }
+    int end = pos + count;
+    int cursor = end;
+    do {
+      buffer[--cursor] = (byte) ('0' + value % 10);
+      value /= 10;
+    } while (value > 0);
+    return end;
+  }
+
+  private int twoDigits(int value, int pos) {
+    buffer[pos] = (byte) ('0' + value / 10);
+    buffer[pos + 1] = (byte) ('0' + value % 10);
+    return pos + 2;
+  }
+
+  private void ensure(int bytes) throws IOException {
+    if (buffer.length - position < bytes) {
+      flushBuffer();
+    }
+  }
+
+  private void flushBuffer() throws IOException {
+    if (position > 0) {
+      out.write(buffer, 0, position);
+      position = 0;
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.example.exptrack.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+// Report amounts as "$1,234", "$123.4" or "$12.34": no decimals from 1000 up, one
+// from 100 up, two below. Produces exactly what String.format("$%,.2f") and friends
+// print in an English locale, including Java's half-up rounding of the shortest
+// decimal form (1.005 -> 1.01), without the Formatter's parsing and allocation.
+public final class CurrencyFormat {
+
+  // Longest output: "$-" + 15 integer digits + 4 commas + "." + 2 decimals
+  public static final int MAX_LENGTH = 32;
+
+  // Beyond this, scaled values no longer fit the exact long arithmetic below
+  private static final double FAST_LIMIT = 1e15;
+  private static final long[] POWERS = { 1, 10, 100 };
+
+  private CurrencyFormat() {
+  }
+
+  public static String format(double value) {
+    if (!isWritable(value)) {
+      return slowFormat(value);
+    }
+    byte[] buffer = new byte[MAX_LENGTH];
+    int length = write(value, buffer, 0);
+    return new String(buffer, 0, length, StandardCharsets.ISO_8859_1);
+  }
+
+  // Whether write() handles the value: finite and below 1e15 in magnitude
+  public static boolean isWritable(double value) {
+    return Math.abs(value) < FAST_LIMIT; // False for NaN
+  }
+
+  // Writes the ASCII form into buffer at offset, which needs MAX_LENGTH bytes of
+  // room; returns the new offset
+  public static int write(double value, byte[] buffer, int offset) {
+    if (!isWritable(value)) {
+      throw new IllegalArgumentException("Not a writable amount: " + value);
+    }
+    double abs = Math.abs(value);
+    int decimals = abs >= 1000 ? 0 : abs >= 100 ? 1 : 2;
+    long units = round(abs, decimals);
+
+    int pos = offset;
+    buffer[pos++] = '$';
+    if (value < 0 || (value == 0 && 1 / value < 0)) {
+      buffer[pos++] = '-'; // Formatter keeps the sign of negative values rounding to zero
+    }
+
+    long integer = units / POWERS[decimals];
+    long fraction = units % POWERS[decimals];
+
+    // Integer digits with thousands separators, written right to left
+    int digits = 1;
+    for (long rest = integer / 10; rest > 0; rest /= 10) {
+      digits++;
+    }
+    int length = digits + (digits - 1) / 3;
+    int end = pos + length;
+    int cursor = end;
+    int written = 0;
+    do {
+      if (written > 0 && written % 3 == 0) {
+        buffer[--cursor] = ',';
+      }
+      buffer[--cursor] = (byte) ('0' + integer % 10);
+      integer /= 10;
+      written++;
+    } while (integer > 0);
+    pos = end;
+
+    if (decimals > 0) {
+      buffer[pos++] = '.';
+      for (int i = decimals - 1; i >= 0; i--) {
+        buffer[pos + i] = (byte) ('0' + fraction % 10);
+        fraction /= 10;
+      }
+      pos += decimals;
+    }
+    return pos;
+  }
+
+  // abs * 10^decimals rounded half up. Only a product within rounding error of a
+  // tie is ambiguous; those go through the decimal form the Formatter rounds.
+  private static long round(double abs, int decimals) {
+    double scaled = abs * POWERS[decimals];
+    long floor = (long) scaled;
+    double fraction = scaled - floor;
+    if (Math.abs(fraction - 0.5) < 1e-6) {
+      return BigDecimal.valueOf(abs).setScale(decimals, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    return fraction > 0.5 ? floor + 1 : floor;
+  }
+
+  private static String slowFormat(double value) {
+    double abs = Math.abs(value);
+    String pattern = abs >= 1000 ? "$%,.0f" : abs >= 100 ? "$%,.1f" : "$%,.2f";
+    return String.format(Locale.US, pattern, value);
+  }
+}
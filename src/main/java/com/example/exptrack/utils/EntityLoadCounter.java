@@ -0,0 +1,21 @@
+package com.example.exptrack.utils;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+// Counts entities hydrated by Hibernate on the current thread. Registered as the
+// session factory interceptor in HibernateConfig.
+public class EntityLoadCounter implements Interceptor {
+
+  private static final ThreadLocal<long[]> LOADED = ThreadLocal.withInitial(() -> new long[1]);
+
+  public static long current() {
+    return LOADED.get()[0];
+  }
+
+  @Override
+  public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+    LOADED.get()[0]++;
+    return false;
+  }
+}
@@ -0,0 +1,79 @@
+package com.example.exptrack.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// Writes a sequence as one top-level array, element by element, through the same
+// Jackson message converter Spring MVC would pick for the media type (JSON, CBOR or
+// Smile). Streamed feeds therefore encode their elements exactly like the list
+// endpoints do, without ever collecting the sequence into a list. Feeds that also
+// offer CSV negotiate it here but write it themselves.
+@Component
+public class FeedWriter {
+
+  public static final String SMILE_VALUE = "application/x-jackson-smile";
+  public static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+  public static final String CSV_VALUE = "text/csv";
+  public static final MediaType CSV = MediaType.parseMediaType(CSV_VALUE);
+
+  private static final List<MediaType> FORMATS = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE,
+      CSV);
+
+  private final List<HttpMessageConverter<?>> converters;
+
+  public FeedWriter(HttpMessageConverters messageConverters) {
+    this.converters = messageConverters.getConverters();
+  }
+
+  // The supported format the client prefers, JSON when it accepts anything
+  public MediaType negotiate(String accept) {
+    List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+    accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+    for (MediaType type : accepted) {
+      for (MediaType format : FORMATS) {
+        if (type.isCompatibleWith(format) && type.getQualityValue() > 0) {
+          return format;
+        }
+      }
+    }
+    return MediaType.APPLICATION_JSON;
+  }
+
+  public <T> void writeArray(MediaType mediaType, Class<T> elementType, Iterator<T> elements, OutputStream out)
+      throws IOException {
+    ObjectMapper mapper = mapperFor(mediaType, elementType);
+    ObjectWriter writer = mapper.writerFor(elementType).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      generator.writeStartArray();
+      while (elements.hasNext()) {
+        writer.writeValue(generator, elements.next());
+      }
+      generator.writeEndArray();
+    }
+  }
+
+  private ObjectMapper mapperFor(MediaType mediaType, Class<?> elementType) {
+    for (HttpMessageConverter<?> converter : converters) {
+      if (converter instanceof AbstractJackson2HttpMessageConverter jackson
+          && jackson.canWrite(elementType, mediaType)) {
+        return jackson.getObjectMapper();
+      }
+    }
+    throw new IllegalArgumentException("No Jackson converter writes " + mediaType);
+  }
+}
@@ -0,0 +1,166 @@
+package com.example.exptrack.utils;
+
+// Additive Holt-Winters exponential smoothing. With a season length of 0 (or too
+// little history for two full seasons) it degrades to Holt's linear trend method.
+public final class HoltWinters {
+
+  private static final double[] ALPHA_GRID = { 0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9 };
+  private static final double[] BETA_GRID = { 0.01, 0.05, 0.1, 0.2, 0.3, 0.5 };
+  private static final double[] GAMMA_GRID = { 0.01, 0.05, 0.1, 0.2, 0.3, 0.5 };
+  private static final double REFINE_STEP = 0.05;
+
+  private HoltWinters() {
+  }
+
+  // seasonLength is the effective one the parameters were fitted with, 0 when non-seasonal
+  public record Parameters(double alpha, double beta, double gamma, int seasonLength) {
+  }
+
+  // Season length actually usable for a series of the given size
+  public static int effectiveSeasonLength(int n, int seasonLength) {
+    return seasonLength > 1 && n >= 2 * seasonLength ? seasonLength : 0;
+  }
+
+  // Full grid search for the parameters minimising one-step-ahead squared error
+  public static Parameters fit(double[] series, int seasonLength) {
+    int m = effectiveSeasonLength(series.length, seasonLength);
+    double[] gammas = m > 0 ? GAMMA_GRID : new double[] { 0.0 };
+
+    Parameters best = new Parameters(0.5, 0.1, m > 0 ? 0.1 : 0.0, m);
+    double bestError = Double.MAX_VALUE;
+    for (double alpha : ALPHA_GRID) {
+      for (double beta : BETA_GRID) {
+        for (double gamma : gammas) {
+          Parameters candidate = new Parameters(alpha, beta, gamma, m);
+          double error = squaredError(series, candidate);
+          if (error < bestError) {
+            bestError = error;
+            best = candidate;
+          }
+        }
+      }
+    }
+    return best;
+  }
+
+  // Local search around previously fitted parameters; used when one more period has
+  // closed. seasonLength is the requested one, so a series that has just reached two
+  // full seasons gets a full seasonal fit instead of staying non-seasonal.
+  public static Parameters refit(double[] series, Parameters previous, int seasonLength) {
+    int m = effectiveSeasonLength(series.length, seasonLength);
+    if (m != previous.seasonLength()) {
+      return fit(series, seasonLength);
+    }
+
+    Parameters best = previous;
+    double bestError = squaredError(series, previous);
+    for (int da = -1; da <= 1; da++) {
+      for (int db = -1; db <= 1; db++) {
+        for (int dg = (m > 0 ? -1 : 0); dg <= (m > 0 ? 1 : 0); dg++) {
+          Parameters candidate = new Parameters(
+              clamp(previous.alpha() + da * REFINE_STEP),
+              clamp(previous.beta() + db * REFINE_STEP),
+              m > 0 ? clamp(previous.gamma() + dg * REFINE_STEP) : 0.0,
+              m);
+          double error = squaredError(series, candidate);
+          if (error < bestError) {
+            bestError = error;
+            best = candidate;
+          }
+        }
+      }
+    }
+    return best;
+  }
+
+  // predictions[i] is the forecast of series[i] from series[0..i-1];
+  // predictions[series.length] is the forecast of the next, not yet observed, point
+  public static double[] oneStepForecasts(double[] series, Parameters parameters) {
+    double[] predictions = new double[series.length + 1];
+    smooth(series, parameters, predictions);
+    return predictions;
+  }
+
+  private static double squaredError(double[] series, Parameters parameters) {
+    return smooth(series, parameters, null);
+  }
+
+  private static double smooth(double[] series, Parameters parameters, double[] predictions) {
+    int n = series.length;
+    if (n == 0) {
+      if (predictions != null) {
+        predictions[0] = 0.0;
+      }
+      return 0.0;
+    }
+
+    double alpha = parameters.alpha();
+    double beta = parameters.beta();
+    double gamma = parameters.gamma();
+    int m = effectiveSeasonLength(n, parameters.seasonLength());
+
+    double level;
+    double trend;
+    double[] seasonal = null;
+    int start;
+
+    if (m > 0) {
+      double firstMean = 0.0;
+      double secondMean = 0.0;
+      for (int i = 0; i < m; i++) {
+        firstMean += series[i];
+        secondMean += series[i + m];
+      }
+      firstMean /= m;
+      secondMean /= m;
+
+      level = firstMean;
+      trend = (secondMean - firstMean) / m;
+      seasonal = new double[m];
+      for (int i = 0; i < m; i++) {
+        seasonal[i] = series[i] - firstMean;
+        if (predictions != null) {
+          predictions[i] = firstMean + seasonal[i];
+        }
+      }
+      // Level/trend describe the end of the first season from here on
+      level = firstMean + trend * (m - 1) / 2.0;
+      start = m;
+    } else {
+      level = series[0];
+      trend = n > 1 ? series[1] - series[0] : 0.0;
+      if (predictions != null) {
+        predictions[0] = series[0];
+      }
+      start = 1;
+    }
+
+    double error = 0.0;
+    for (int t = start; t < n; t++) {
+      double season = m > 0 ? seasonal[t % m] : 0.0;
+      double forecast = level + trend + season;
+      if (predictions != null) {
+        predictions[t] = Math.max(0.0, forecast);
+      }
+      double residual = series[t] - forecast;
+      error += residual * residual;
+
+      double previousLevel = level;
+      level = alpha * (series[t] - season) + (1 - alpha) * (level + trend);
+      trend = beta * (level - previousLevel) + (1 - beta) * trend;
+      if (m > 0) {
+        seasonal[t % m] = gamma * (series[t] - level) + (1 - gamma) * season;
+      }
+    }
+
+    if (predictions != null) {
+      double season = m > 0 ? seasonal[n % m] : 0.0;
+      predictions[n] = Math.max(0.0, level + trend + season);
+    }
+    return error;
+  }
+
+  private static double clamp(double value) {
+    return Math.max(0.01, Math.min(0.99, value));
+  }
+}
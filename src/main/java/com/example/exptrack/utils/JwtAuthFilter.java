@@ -6,14 +6,18 @@ import java.util.Collections;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.example.exptrack.dtos.UserDTO;
+import com.example.exptrack.jfr.AuthenticationEvent;
 import com.example.exptrack.services.CookieService;
 import com.example.exptrack.services.JwtService;
 
+import io.micrometer.core.instrument.Timer;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -31,6 +35,12 @@ public class JwtAuthFilter extends OncePerRequestFilter {
   @Autowired
   private CookieService cookieService;
 
+  @Autowired
+  private ServiceMetrics metrics;
+
+  @Autowired
+  private ManagementPortMatcher managementPort;
+
   @Override
   protected void doFilterInternal(
       HttpServletRequest request,
@@ -38,14 +48,23 @@ public class JwtAuthFilter extends OncePerRequestFilter {
       FilterChain filterChain) throws ServletException, IOException {
 
     String path = request.getServletPath();
+    // Only the authentication work is timed, never the downstream chain
+    Timer.Sample sample = Timer.start();
+    AuthenticationEvent event = new AuthenticationEvent();
+    event.path = path;
+    event.begin();
 
     // ✅ Public endpoints - skip authentication entirely
     if (path.startsWith("/api/public") ||
+        managementPort.matches(request) ||
+        path.equals("/livez") ||
+        path.equals("/readyz") ||
         path.equals("/auth/login") ||
         path.equals("/auth/signup") ||
         path.equals("/auth/refresh") ||
         path.equals("/auth/login/refresh") ||
         path.equals("/auth/login/refresh-access")) {
+      finish(sample, event, "public");
       filterChain.doFilter(request, response);
       return;
     }
@@ -59,6 +78,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
           && !jwtService.isTokenExpired(accessToken)) {
 
         authenticate(accessToken);
+        finish(sample, event, "access");
         filterChain.doFilter(request, response);
         return;
       }
@@ -86,20 +106,39 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             jwtService.getMillisUntilExpiration(tokens.getRefreshToken()) / 1000);
 
         authenticate(tokens.getAccessToken());
+        finish(sample, event, "refreshed");
         filterChain.doFilter(request, response);
         return;
       }
 
       // ❌ No valid tokens
+      finish(sample, event, "rejected");
       response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
       return;
 
     } catch (Exception e) {
+      // Failures after authenticate() come from the chain and were already timed
+      if (SecurityContextHolder.getContext().getAuthentication() == null) {
+        finish(sample, event, "rejected");
+      }
       response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
       return;
     }
   }
 
+  private void finish(Timer.Sample sample, AuthenticationEvent event, String outcome) {
+    sample.stop(metrics.authFilterTimer(outcome));
+    event.end();
+    if (event.shouldCommit()) {
+      event.outcome = outcome;
+      Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+      if (authentication != null && authentication.getPrincipal() instanceof UserDTO user) {
+        event.userId = user.id();
+      }
+      event.commit();
+    }
+  }
+
   private void authenticate(String token) {
     UserDTO user = jwtService.extractUserDTO(token);
 
@@ -0,0 +1,25 @@
+package com.example.exptrack.utils;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// Matches requests that arrived on the actuator's own port (management.server.port,
+// bound to an internal address). The public port does not serve actuator endpoints,
+// so anything matched here came from inside the network, e.g. a Prometheus scrape.
+@Component
+public class ManagementPortMatcher implements RequestMatcher {
+
+  @Autowired
+  private Environment environment;
+
+  @Override
+  public boolean matches(HttpServletRequest request) {
+    // Published once the management server has started, also when its port is 0
+    String port = environment.getProperty("local.management.port");
+    return port != null && port.equals(String.valueOf(request.getLocalPort()));
+  }
+}
@@ -0,0 +1,34 @@
+package com.example.exptrack.utils;
+
+import java.util.Collection;
+
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.Entity;
+
+// Counts rows that repository queries return as DTO projections on the current
+// thread. Projections never pass through the Hibernate interceptor, so together with
+// EntityLoadCounter this covers every row a service call reads.
+@Aspect
+@Component
+public class ProjectionRowCounter {
+
+  private static final ThreadLocal<long[]> ROWS = ThreadLocal.withInitial(() -> new long[1]);
+
+  public static long current() {
+    return ROWS.get()[0];
+  }
+
+  @AfterReturning(pointcut = "execution(* com.example.exptrack.repositories.*.*(..))", returning = "result")
+  public void countRows(Object result) {
+    // Result lists hold one type; entity results are counted by EntityLoadCounter
+    if (result instanceof Collection<?> rows && !rows.isEmpty()) {
+      Object first = rows.iterator().next();
+      if (first != null && !first.getClass().isAnnotationPresent(Entity.class)) {
+        ROWS.get()[0] += rows.size();
+      }
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.example.exptrack.utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Maximum SQL statements and hydrated entities a controller method may use per
+// request. Checked by QueryBudgetAdvice outside the prod profile; -1 means unchecked.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+  int statements() default -1;
+
+  int entities() default -1;
+}
@@ -0,0 +1,117 @@
+package com.example.exptrack.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Counts SQL statements and hydrated entities per request (outside prod). The
+// counts go out as X-Query-Count / X-Entity-Count headers, just before the body
+// is written, and as metrics once the request completes. Handlers annotated with
+// @QueryBudget are checked against it: with query-budget.enforce=true an overrun
+// fails the request, otherwise it is logged and counted.
+@ControllerAdvice
+@Profile("!prod")
+public class QueryBudgetAdvice implements HandlerInterceptor, ResponseBodyAdvice<Object> {
+
+  private static final Logger log = LoggerFactory.getLogger(QueryBudgetAdvice.class);
+
+  private static final String BASELINE = QueryBudgetAdvice.class.getName() + ".baseline";
+  private static final String CHECKED = QueryBudgetAdvice.class.getName() + ".checked";
+
+  @Autowired
+  private ServiceMetrics metrics;
+
+  @Value("${query-budget.enforce:false}")
+  private boolean enforce;
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (handler instanceof HandlerMethod) {
+      request.setAttribute(BASELINE, new long[] { SqlStatementCounter.current(), EntityLoadCounter.current() });
+    }
+    return true;
+  }
+
+  @Override
+  public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return true;
+  }
+
+  @Override
+  public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+      Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+      ServerHttpResponse response) {
+    if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+      return body;
+    }
+    HttpServletRequest httpRequest = servletRequest.getServletRequest();
+    long[] baseline = (long[]) httpRequest.getAttribute(BASELINE);
+    if (baseline == null) {
+      return body;
+    }
+
+    long statements = SqlStatementCounter.current() - baseline[0];
+    long entities = EntityLoadCounter.current() - baseline[1];
+    response.getHeaders().set("X-Query-Count", String.valueOf(statements));
+    response.getHeaders().set("X-Entity-Count", String.valueOf(entities));
+
+    // Only the handler's own body is checked, not an error body written because of it
+    if (enforce && httpRequest.getAttribute(CHECKED) == null) {
+      httpRequest.setAttribute(CHECKED, Boolean.TRUE);
+      QueryBudget budget = returnType.getMethodAnnotation(QueryBudget.class);
+      String overrun = overrun(budget, statements, entities);
+      if (overrun != null) {
+        throw new QueryBudgetExceededException(
+            returnType.getExecutable().getName() + " exceeded its query budget: " + overrun);
+      }
+    }
+    return body;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+      Exception ex) {
+    long[] baseline = (long[]) request.getAttribute(BASELINE);
+    if (baseline == null || !(handler instanceof HandlerMethod handlerMethod)) {
+      return;
+    }
+
+    long statements = SqlStatementCounter.current() - baseline[0];
+    long entities = EntityLoadCounter.current() - baseline[1];
+    String endpoint = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+    String overrun = overrun(handlerMethod.getMethodAnnotation(QueryBudget.class), statements, entities);
+
+    metrics.recordRequestQueries(endpoint, statements, entities, overrun != null);
+    if (overrun != null) {
+      log.warn("Query budget exceeded by {}: {}", endpoint, overrun);
+    }
+  }
+
+  private static String overrun(QueryBudget budget, long statements, long entities) {
+    if (budget == null) {
+      return null;
+    }
+    if (budget.statements() >= 0 && statements > budget.statements()) {
+      return statements + " statements, budget " + budget.statements();
+    }
+    if (budget.entities() >= 0 && entities > budget.entities()) {
+      return entities + " entities, budget " + budget.entities();
+    }
+    return null;
+  }
+}
@@ -0,0 +1,8 @@
+package com.example.exptrack.utils;
+
+public class QueryBudgetExceededException extends RuntimeException {
+
+  public QueryBudgetExceededException(String message) {
+    super(message);
+  }
+}
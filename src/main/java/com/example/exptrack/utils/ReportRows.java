@@ -0,0 +1,33 @@
+package com.example.exptrack.utils;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Rows of a report table that are read from their source each time the table is
+// rendered instead of being held in the prepared data, so a render keeps only the
+// rows it is writing. count is the number of rows when the data was prepared.
+public final class ReportRows implements Iterable<List<Object>> {
+
+  private final long count;
+  private final Supplier<Iterator<List<Object>>> rows;
+
+  public ReportRows(long count, Supplier<Iterator<List<Object>>> rows) {
+    this.count = count;
+    this.rows = rows;
+  }
+
+  public long count() {
+    return count;
+  }
+
+  @Override
+  public Iterator<List<Object>> iterator() {
+    return rows.get();
+  }
+
+  @Override
+  public String toString() {
+    return "ReportRows[count=" + count + "]";
+  }
+}
@@ -0,0 +1,55 @@
+package com.example.exptrack.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// A text template compiled once into UTF-8 fragments around {{name}} slots.
+// Rendering copies the static bytes and lets each slot write its own content, so
+// the page is never assembled as a String and the boilerplate is never re-encoded.
+public final class ReportTemplate {
+
+  @FunctionalInterface
+  public interface Slot {
+    void write(Utf8Output out) throws IOException;
+  }
+
+  private final byte[][] fragments;
+  private final String[] slots;
+
+  private ReportTemplate(byte[][] fragments, String[] slots) {
+    this.fragments = fragments;
+    this.slots = slots;
+  }
+
+  public static ReportTemplate compile(String source) {
+    List<byte[]> fragments = new ArrayList<>();
+    List<String> slots = new ArrayList<>();
+    int from = 0;
+    int open;
+    while ((open = source.indexOf("{{", from)) >= 0) {
+      int close = source.indexOf("}}", open + 2);
+      if (close < 0) {
+        throw new IllegalArgumentException("Unclosed slot at offset " + open);
+      }
+      fragments.add(Utf8Output.utf8(source.substring(from, open)));
+      slots.add(source.substring(open + 2, close).trim());
+      from = close + 2;
+    }
+    fragments.add(Utf8Output.utf8(source.substring(from)));
+    return new ReportTemplate(fragments.toArray(new byte[0][]), slots.toArray(new String[0]));
+  }
+
+  public void render(Utf8Output out, Map<String, Slot> values) throws IOException {
+    for (int i = 0; i < slots.length; i++) {
+      out.write(fragments[i]);
+      Slot slot = values.get(slots[i]);
+      if (slot == null) {
+        throw new IllegalArgumentException("No value for template slot " + slots[i]);
+      }
+      slot.write(out);
+    }
+    out.write(fragments[slots.length]);
+  }
+}
@@ -0,0 +1,125 @@
+package com.example.exptrack.utils;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Meter names and tag normalisation shared by the service, report and auth paths.
+// Tag values that come from request parameters are mapped onto a fixed set so a
+// client cannot blow up the number of time series.
+@Component
+public class ServiceMetrics {
+
+  private static final Set<String> TIME_FRAMES = Set.of(
+      "day", "week", "month", "year", "all", "monthly", "quarterly", "yearly");
+  private static final Set<String> REPORT_TYPES = Set.of(
+      "expense", "income-statement", "all", "transactions");
+  private static final Set<String> REPORT_FORMATS = Set.of(
+      "csv", "html", "markdown", "json", "pdf", "xlsx");
+
+  private final MeterRegistry registry;
+
+  public ServiceMetrics(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  public Timer serviceTimer(String method, String timeFrame) {
+    return Timer.builder("exptrack.service")
+        .description("TransactionService method latency")
+        .tag("method", method)
+        .tag("timeFrame", normalize(timeFrame, TIME_FRAMES))
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  public void recordRowsHydrated(String method, long rows) {
+    DistributionSummary.builder("exptrack.rows.hydrated")
+        .description("Rows read per service call, as entities or as projections")
+        .tag("method", method)
+        .publishPercentileHistogram()
+        .register(registry)
+        .record(rows);
+  }
+
+  public void recordRequestQueries(String endpoint, long statements, long entities, boolean overBudget) {
+    DistributionSummary.builder("exptrack.request.statements")
+        .description("SQL statements executed per request")
+        .tag("endpoint", endpoint)
+        .publishPercentileHistogram()
+        .register(registry)
+        .record(statements);
+    DistributionSummary.builder("exptrack.request.entities")
+        .description("Entities hydrated by Hibernate per request")
+        .tag("endpoint", endpoint)
+        .publishPercentileHistogram()
+        .register(registry)
+        .record(entities);
+    if (overBudget) {
+      registry.counter("exptrack.request.budget.exceeded", "endpoint", endpoint).increment();
+    }
+  }
+
+  public void recordReportRender(String format, String type, long nanos, long bytes) {
+    String formatTag = normalize(format, REPORT_FORMATS);
+    String typeTag = normalize(type, REPORT_TYPES);
+    Timer.builder("exptrack.report.render")
+        .description("Report rendering latency, excluding data preparation")
+        .tag("format", formatTag)
+        .tag("type", typeTag)
+        .publishPercentileHistogram()
+        .register(registry)
+        .record(nanos, TimeUnit.NANOSECONDS);
+    DistributionSummary.builder("exptrack.report.bytes")
+        .description("Rendered report size")
+        .baseUnit("bytes")
+        .tag("format", formatTag)
+        .tag("type", typeTag)
+        .publishPercentileHistogram()
+        .register(registry)
+        .record(bytes);
+  }
+
+  // outcome: hit (served from the snapshot), stored (computed and snapshotted), miss
+  // (computed, but invalidated meanwhile or not stored) or dropped (computed, store
+  // queue full)
+  public void recordReportSnapshot(String type, String outcome) {
+    registry.counter("exptrack.report.snapshot",
+        "type", normalize(type, REPORT_TYPES), "outcome", outcome).increment();
+  }
+
+  // outcome: memory or disk for a rendered-report cache hit, miss otherwise, and
+  // prewarm for a report rendered into the cache by the month-end prewarm
+  public void recordReportCache(String format, String outcome) {
+    registry.counter("exptrack.report.cache",
+        "format", normalize(format, REPORT_FORMATS), "outcome", outcome).increment();
+  }
+
+  public Timer jwtTimer(String operation) {
+    return Timer.builder("exptrack.jwt")
+        .description("JWT signing, verification and refresh latency")
+        .tag("operation", operation)
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  public Timer authFilterTimer(String outcome) {
+    return Timer.builder("exptrack.auth.filter")
+        .description("Time spent authenticating a request in JwtAuthFilter")
+        .tag("outcome", outcome)
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  private static String normalize(String value, Set<String> known) {
+    if (value == null) {
+      return "none";
+    }
+    String lower = value.toLowerCase();
+    return known.contains(lower) ? lower : "other";
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.exptrack.utils;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Timer;
+
+// Times every public TransactionService call, tagged by method and timeFrame
+// argument, and records how many rows it read: entities Hibernate hydrated plus
+// rows repository queries returned as projections
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+  private final ServiceMetrics metrics;
+
+  public ServiceMetricsAspect(ServiceMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  @Around("execution(public * com.example.exptrack.services.TransactionService.*(..))")
+  public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+    MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+    String method = signature.getName();
+    String timeFrame = null;
+    String[] parameterNames = signature.getParameterNames();
+    Object[] args = joinPoint.getArgs();
+    for (int i = 0; parameterNames != null && i < parameterNames.length; i++) {
+      if ("timeFrame".equals(parameterNames[i]) && args[i] instanceof String value) {
+        timeFrame = value;
+      }
+    }
+
+    long rowsBefore = rowsRead();
+    Timer.Sample sample = Timer.start();
+    try {
+      return joinPoint.proceed();
+    } finally {
+      sample.stop(metrics.serviceTimer(method, timeFrame));
+      metrics.recordRowsHydrated(method, rowsRead() - rowsBefore);
+    }
+  }
+
+  private static long rowsRead() {
+    return EntityLoadCounter.current() + ProjectionRowCounter.current();
+  }
+}
@@ -0,0 +1,20 @@
+package com.example.exptrack.utils;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Counts SQL statements prepared by Hibernate on the current thread. Registered as
+// the session factory statement inspector in HibernateConfig; the SQL is not changed.
+public class SqlStatementCounter implements StatementInspector {
+
+  private static final ThreadLocal<long[]> PREPARED = ThreadLocal.withInitial(() -> new long[1]);
+
+  public static long current() {
+    return PREPARED.get()[0];
+  }
+
+  @Override
+  public String inspect(String sql) {
+    PREPARED.get()[0]++;
+    return sql;
+  }
+}
@@ -0,0 +1,125 @@
+package com.example.exptrack.utils;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+// Buffered UTF-8 text output for the report renderers. Strings are encoded straight
+// into one reusable byte buffer, optionally HTML-escaped in the same pass, static
+// fragments are copied as pre-encoded bytes, and amounts are formatted in place by
+// CurrencyFormat. Nothing reaches the stream until the buffer fills or flush().
+public final class Utf8Output implements Flushable {
+
+  private static final byte[] AMP = ascii("&amp;");
+  private static final byte[] LT = ascii("&lt;");
+  private static final byte[] GT = ascii("&gt;");
+  private static final byte[] QUOT = ascii("&quot;");
+  private static final byte[] APOS = ascii("&#39;");
+
+  private final OutputStream out;
+  private final byte[] buffer;
+  private int position;
+
+  public Utf8Output(OutputStream out) {
+    this(out, 8192);
+  }
+
+  public Utf8Output(OutputStream out, int bufferSize) {
+    this.out = out;
+    this.buffer = new byte[Math.max(bufferSize, 64)];
+  }
+
+  public static byte[] utf8(String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+
+  public void write(byte[] bytes) throws IOException {
+    if (bytes.length > buffer.length - position) {
+      flushBuffer();
+      if (bytes.length > buffer.length) {
+        out.write(bytes);
+        return;
+      }
+    }
+    System.arraycopy(bytes, 0, buffer, position, bytes.length);
+    position += bytes.length;
+  }
+
+  public void write(String text) throws IOException {
+    encode(text, false);
+  }
+
+  // Text content or attribute value: & < > " ' become entities
+  public void writeHtml(String text) throws IOException {
+    encode(text, true);
+  }
+
+  public void writeCurrency(double amount) throws IOException {
+    if (!CurrencyFormat.isWritable(amount)) {
+      write(CurrencyFormat.format(amount));
+      return;
+    }
+    ensure(CurrencyFormat.MAX_LENGTH);
+    position = CurrencyFormat.write(amount, buffer, position);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    flushBuffer();
+    out.flush();
+  }
+
+  private void encode(String text, boolean html) throws IOException {
+    int length = text.length();
+    for (int i = 0; i < length; i++) {
+      char c = text.charAt(i);
+      if (c < 0x80) {
+        if (html && (c == '&' || c == '<' || c == '>' || c == '"' || c == '\'')) {
+          write(c == '&' ? AMP : c == '<' ? LT : c == '>' ? GT : c == '"' ? QUOT : APOS);
+          continue;
+        }
+        if (position == buffer.length) {
+          flushBuffer();
+        }
+        buffer[position++] = (byte) c;
+      } else if (c < 0x800) {
+        ensure(2);
+        buffer[position++] = (byte) (0xC0 | (c >> 6));
+        buffer[position++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, text.charAt(++i));
+        ensure(4);
+        buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+        buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+        buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+        buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        ensure(1);
+        buffer[position++] = '?'; // Unpaired surrogate, as String.getBytes does
+      } else {
+        ensure(3);
+        buffer[position++] = (byte) (0xE0 | (c >> 12));
+        buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        buffer[position++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+  }
+
+  private void ensure(int bytes) throws IOException {
+    if (buffer.length - position < bytes) {
+      flushBuffer();
+    }
+  }
+
+  private void flushBuffer() throws IOException {
+    if (position > 0) {
+      out.write(buffer, 0, position);
+      position = 0;
+    }
+  }
+
+  private static byte[] ascii(String text) {
+    return text.getBytes(StandardCharsets.US_ASCII);
+  }
+}